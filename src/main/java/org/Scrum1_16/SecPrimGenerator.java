@@ -4,31 +4,54 @@ import org.scrum1_2.PrimTester;
 
 import java.math.BigInteger;
 import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class SecPrimGenerator {
     private static final SecureRandom random = new SecureRandom();
 
     /**
-     * Generiert eine zufällige Primzahl im Bereich [a, b] unter Verwendung des Miller-Rabin-Tests.
-     * @param bitLength Länge der Primzahl in Bit
+     * Generiert eine sichere Primzahl p = 2q + 1, wobei q eine zufällige Primzahl mit bitLength Bit ist.
+     *
+     * Gemeinsames Sieb (PrimGenerator.siebSuche): ab einem zufälligen ungeraden Startwert werden pro
+     * Fenster alle q gestrichen, bei denen q oder 2q + 1 durch eine kleine Primzahl s teilbar ist,
+     * d.h. q ≡ 0 oder q ≡ (s - 1)/2 (mod s).
+     * Nur die wenigen Überlebenden bekommen Miller-Rabin für q und gleich danach für p,
+     * statt jedes Mal eine komplette Primzahl q zu erzeugen und p meist zu verwerfen.
+     *
+     * @param bitLength Länge von q in Bit
      * @param mrIterations Anzahl der Miller-Rabin-Iterationen
-     * @return Eine zufällige Primzahl im gegebenen Bereich
+     * @return sichere Primzahl p
      */
     public static BigInteger generateSafePrime(BigInteger bitLength, int mrIterations) {
         BigInteger lowerBound = BigInteger.ONE.shiftLeft(bitLength.subtract(BigInteger.ONE).intValue());  // 2^(bitLength - 1)
         BigInteger upperBound = lowerBound.shiftLeft(1).subtract(BigInteger.ONE);  // 2^bitLength - 1
 
-        while (true) {
-            BigInteger q = PrimGenerator.generateRandomPrime(lowerBound, upperBound, mrIterations); // Generiert Primzahl q
-            BigInteger p = q.multiply(BigInteger.TWO).add(BigInteger.ONE); // Erzeugt p = 2q + 1
-
+        // Nur Siebprimzahlen s < 2^(bitLength - 1): dann ist s weder q noch p selbst
+        int anzahl = PrimGenerator.anzahlSiebPrimzahlen(lowerBound);
+        AtomicBoolean keinAbbruch = new AtomicBoolean(false);
 
-            if (PrimTester.istPrimzahl(p, mrIterations)) { // Miller-Rabin-Test mit 20 Iterationen für p
+        while (true) {
+            // zufälliger ungerader Start in [2^(bitLength - 1), 2^bitLength - 1]
+            BigInteger start = new BigInteger(bitLength.intValue(), random).setBit(bitLength.intValue() - 1).setBit(0);
+            BigInteger p = PrimGenerator.siebSuche(start, upperBound, anzahl, true, keinAbbruch,
+                    q -> sicherePrimzahlZu(q, mrIterations));
+            if (p != null) {
                 return p;
             }
         }
     }
 
+    /**
+     * @return p = 2q + 1, falls q und p prim sind, sonst null
+     */
+    private static BigInteger sicherePrimzahlZu(BigInteger q, int mrIterations) {
+        if (!PrimTester.istPrimzahl(q, mrIterations)) {
+            return null;
+        }
+        BigInteger p = q.shiftLeft(1).add(BigInteger.ONE);  // p = 2q + 1
+        return PrimTester.istPrimzahl(p, mrIterations) ? p : null;
+    }
+
     // Findet eine Primitivwurzel g in Z_p
     public static BigInteger findPrimitiveRoot(BigInteger p) {
         BigInteger q = p.subtract(BigInteger.ONE).divide(BigInteger.TWO); // q = (p-1)/2
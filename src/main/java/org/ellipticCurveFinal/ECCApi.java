@@ -1,16 +1,24 @@
 package org.ellipticCurveFinal;
 
+import org.scrum1_1.PrimPool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.SecureRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 
 public class ECCApi {
 
     private static ECCApi instance;
     private static final String CONFIG_FILE = "ecc_config.txt";
     private static final String CONFIG_FILE_PRIVATE = "ecc_config_private.txt";
+    private static final String GENERATOR_TABLE_FILE = "ecc_config_generator.txt";
 
     // Domain-Parameter
     private FiniteFieldEllipticCurve curve;
@@ -32,6 +40,49 @@ public class ECCApi {
     private int bitlength = 256;
     private int millerRabin = 20;
 
+    // Paralleler Modus (opt-in): null = alle Tupel sequentiell im aufrufenden Thread
+    private ExecutorService executor;
+    // Hybridmodus (opt-in): encrypt(String) nutzt ECCHybridCipher statt der ElGamal-Tupel
+    private boolean hybrid;
+    // Vorrat an Domain-Parametern (p, q) je Bitlänge (opt-in): null = Kurve wird bei Bedarf gesucht
+    private PrimPool primPool;
+    private static final int DEFAULT_POOL_GROESSE = 1;
+
+    /**
+     * Bezieht neue Domain-Parameter (p, q) künftig aus dem Pool (Art "ecc-" + Bitlänge); null schaltet ihn ab.
+     * Bitlängen, die noch nicht registriert sind, werden beim ersten Bedarf registriert.
+     */
+    public void setPrimPool(PrimPool primPool) {
+        this.primPool = primPool;
+    }
+
+    /**
+     * Schaltet für encrypt(String) den Hybridmodus (EC-Schlüsselvereinbarung + AES-GCM) ein oder aus.
+     * decrypt(String) erkennt das Format unabhängig davon selbst.
+     */
+    public void setHybrid(boolean hybrid) {
+        this.hybrid = hybrid;
+    }
+
+    public boolean isHybrid() {
+        return hybrid;
+    }
+
+    /**
+     * Schaltet die parallele Ver- und Entschlüsselung (ForkJoinPool.commonPool()) ein oder aus.
+     */
+    public void setParallel(boolean parallel) {
+        this.executor = parallel ? ForkJoinPool.commonPool() : null;
+    }
+
+    /**
+     * Setzt einen eigenen Executor für die Tupelverarbeitung (null = sequentiell).
+     * Der Executor wird von ECCApi nicht heruntergefahren.
+     */
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
     public ECCSignature.Signature getSig() {
         return sig;
     }
@@ -63,7 +114,9 @@ public class ECCApi {
             System.out.println("Generiere neue Domain-Parameter...");
             generateDomainParameters();
         }
-        if (loadPrivateKeyFromFile()) {
+        boolean privateKeyGeladen = loadPrivateKeyFromFile();
+        prepareGenerator();
+        if (privateKeyGeladen) {
             System.out.println("Private Key aus der Datei geladen.");
         } else {
             generateKeyPair();
@@ -71,6 +124,39 @@ public class ECCApi {
         saveDomainParameters();
     }
 
+    /**
+     * Ersetzt den Generator durch einen FixedBasePoint mit vorberechneter Tabelle, damit k·G
+     * ohne Verdopplungen auskommt. Die Tabelle wird neben ecc_config.txt zwischengespeichert
+     * und nur neu aufgebaut, wenn sie fehlt oder zu anderen Domain-Parametern gehört.
+     * Außerdem wird GLV auf der Kurve eingeschaltet; genutzt wird es nur für Punkte, die
+     * nachweislich in der Untergruppe der Ordnung q liegen (SubgroupPoint, z.B. der eigene
+     * öffentliche Schlüssel), nicht für Punkte aus Chiffraten.
+     */
+    private void prepareGenerator() {
+        if (curve.getGLV() == null) {
+            try {
+                curve.setQ(q);
+                curve.enableGLV(generator);
+            } catch (IllegalArgumentException e) {
+                System.out.println("GLV nicht verfügbar: " + e.getMessage());
+            }
+        }
+        if (generator instanceof FixedBasePoint) {
+            return;
+        }
+        Path pfad = Path.of(GENERATOR_TABLE_FILE);
+        FixedBasePoint tabelle = FixedBasePoint.load(pfad, generator, curve, q.bitLength());
+        if (tabelle == null) {
+            tabelle = new FixedBasePoint(generator, curve, q.bitLength());
+            try {
+                tabelle.save(pfad);
+            } catch (Exception e) {
+                System.out.println("Fehler beim Speichern der Generator-Tabelle: " + e);
+            }
+        }
+        generator = tabelle;
+    }
+
     private boolean loadPrivateKeyFromFile() {
         Path pfad = Path.of(CONFIG_FILE_PRIVATE);
         if (!Files.exists(pfad)) {
@@ -104,7 +190,7 @@ public class ECCApi {
             // 3) Rekonstruiere das Kurvenobjekt:
             curve = new FiniteFieldEllipticCurve(p);
 
-            return true;
+            return isValidFilePoint("Generator", generator);
         } catch (NumberFormatException nfe) {
             System.out.println("Fehler beim Parsen des Private Key: " + nfe.getMessage());
             return false;
@@ -117,15 +203,36 @@ public class ECCApi {
         setBitlength(bitlength);
         setMillerRabin(millerRabin);
         generateDomainParameters();
+        prepareGenerator();
         generateKeyPair();
         saveDomainParameters();
     }
 
     private void generateDomainParameters() {
-        SecureFiniteFieldEllipticCurve sec = new SecureFiniteFieldEllipticCurve(bitlength, millerRabin);
-        this.curve = sec.getCurve();
+        BigInteger[] parameter = null;
+        PrimPool pool = primPool;
+        if (pool != null) {
+            String art = "ecc-" + bitlength;
+            if (!pool.istRegistriert(art)) {
+                int bits = bitlength;
+                int mr = millerRabin;
+                pool.registriere(art, DEFAULT_POOL_GROESSE, () -> {
+                    SecureFiniteFieldEllipticCurve sec = new SecureFiniteFieldEllipticCurve(bits, mr);
+                    return new BigInteger[]{sec.getCurve().getP(), sec.getQ()};
+                });
+            }
+            parameter = pool.entnehmen(art);
+        }
+        if (parameter != null) {
+            this.curve = new FiniteFieldEllipticCurve(parameter[0]);
+            this.q = parameter[1];
+            curve.setQ(q);
+        } else {
+            SecureFiniteFieldEllipticCurve sec = new SecureFiniteFieldEllipticCurve(bitlength, millerRabin);
+            this.curve = sec.getCurve();
+            this.q = sec.getQ();
+        }
         this.p = curve.getP();
-        this.q = sec.getQ();
         this.generator = curve.findGenerator(q);
         System.out.println("Domain-Parameter generiert: p-bitlength=" + p.bitLength());
     }
@@ -135,7 +242,8 @@ public class ECCApi {
         do {
             privateKey = new BigInteger(q.bitLength(), rnd);
         } while (privateKey.compareTo(BigInteger.ONE) < 0 || privateKey.compareTo(q) >= 0);
-        this.publicKey = generator.multiply(privateKey, curve).normalize(curve);
+        // Vielfaches des Generators, liegt also in der Untergruppe
+        this.publicKey = SubgroupPoint.of(generator.multiply(privateKey, curve));
         System.out.println("Schlüsselpaar generiert.");
     }
 
@@ -177,6 +285,10 @@ public class ECCApi {
             // 3) Rekonstruiere das Kurvenobjekt:
             curve = new FiniteFieldEllipticCurve(p);
 
+            if (!isValidFilePoint("Generator", generator) || !isValidFilePoint("Public Key", publicKey)) {
+                return false;
+            }
+            publicKey = SubgroupPoint.of(publicKey);
             return true;
         } catch (NumberFormatException nfe) {
             System.out.println("Fehler beim Parsen des Public Key: " + nfe.getMessage());
@@ -184,6 +296,20 @@ public class ECCApi {
         }
     }
 
+    /**
+     * Punkte aus Dateien werden vor der ersten Verwendung einmal gegen die Kurve und die
+     * Untergruppe der Ordnung q geprüft, die Punktarithmetik selbst prüft nicht mehr.
+     */
+    private boolean isValidFilePoint(String name, ECPoint point) {
+        try {
+            curve.validateSubgroupPoint(point, q);
+            return true;
+        } catch (IllegalArgumentException e) {
+            System.out.println("Ungültiger " + name + " in der Datei: " + e.getMessage());
+            return false;
+        }
+    }
+
     private void saveDomainParameters() {
         // 1) Baue den CSV‐String: p, q, Gx, Gy, Yx, Yy
         StringBuilder sb = new StringBuilder();
@@ -235,24 +361,53 @@ public class ECCApi {
      * Verschlüsselt den Text und liefert Base64-Chiffretext.
      */
     public String encrypt(String text) {
+            if (hybrid) {
+                return encryptHybrid(text);
+            }
             ECCElgamalBlockCipher.Result r = ECCElgamalBlockCipher.encrypt(
-                    text, generator, publicKey, p, q, curve
+                    text, generator, publicKey, p, q, curve, executor
             );
             return r.base64;
     }
 
     /**
-     * Dekodiert Base64 und entschlüsselt zum Klartext.
+     * Verschlüsselt den Text im Hybridmodus (ECCHybridCipher) und liefert "ECH1:" + Base64.
+     */
+    public String encryptHybrid(String text) {
+        return ECCHybridCipher.encryptToBase64(text, generator, publicKey, q, curve);
+    }
+
+    /**
+     * Entschlüsselt zum Klartext. Hybrid-Chiffrate werden an der Kennung "ECH1:" erkannt,
+     * alles andere wird als Base64-Tupelfolge gelesen.
      */
     public String decrypt(String text) {
+        if (ECCHybridCipher.isHybrid(text)) {
+            return ECCHybridCipher.decryptFromBase64(text, privateKey, curve);
+        }
         ECCElgamalBlockCipher.Result r = ECCElgamalBlockCipher.base64ToResult(
                 text, p, curve
         );
         return ECCElgamalBlockCipher.decrypt(
-                r, privateKey, p, curve
+                r, privateKey, p, curve, executor
         );
     }
 
+    /**
+     * Verschlüsselt einen Datenstrom Tupel für Tupel mit konstantem Speicherbedarf
+     * (z.B. große Dateien). Siehe ECCElgamalBlockCipher.encryptStream.
+     */
+    public void encrypt(InputStream in, OutputStream out, boolean base64) throws IOException {
+        ECCElgamalBlockCipher.encryptStream(in, out, generator, publicKey, p, q, curve, base64);
+    }
+
+    /**
+     * Entschlüsselt einen mit encrypt(InputStream, OutputStream, boolean) erzeugten Datenstrom.
+     */
+    public void decrypt(InputStream in, OutputStream out, boolean base64) throws IOException {
+        ECCElgamalBlockCipher.decryptStream(in, out, privateKey, p, curve, base64);
+    }
+
     /**
      * Signiert eine Nachricht mit dem aktuellen Private Key (ECDSA).
      *
@@ -343,12 +498,17 @@ public class ECCApi {
             BigInteger yy = new BigInteger(parts[5]);
             publicKey = new FiniteFieldECPoint(yx, yy);
 
-            // 3) Rekonstruiere das Kurvenobjekt:
+            // 3) Rekonstruiere das Kurvenobjekt und prüfe die Punkte aus der Datei:
             curve = new FiniteFieldEllipticCurve(p);
+            if (!isValidFilePoint("Generator", generator) || !isValidFilePoint("Public Key", publicKey)) {
+                return false;
+            }
+            publicKey = SubgroupPoint.of(publicKey);
 
             // 4) Lese den PrivateKey ein
             privateKey = new BigInteger(parts2[4]);
 
+            prepareGenerator();
             return true;
         } catch (NumberFormatException nfe) {
             System.out.println("Fehler beim Parsen des Public Key: " + nfe.getMessage());
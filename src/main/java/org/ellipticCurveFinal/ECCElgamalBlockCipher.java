@@ -1,5 +1,8 @@
 package org.ellipticCurveFinal;
 
+import org.scrum1_4.simultaneInversion;
+import org.scrum1_6.BlockStromUtils;
+
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
@@ -8,13 +11,29 @@ import java.util.Arrays;
 import java.util.Base64;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+
+import static org.scrum1_6.BlockStromUtils.nichtSchliessend;
+import static org.scrum1_6.BlockStromUtils.schreibeFesteLaenge;
 
 /**
  * ECC-ElGamal Blockchiffre mit API-Design analog zu RSAUTF8.
  */
 public class ECCElgamalBlockCipher {
 
+    /** Ab dieser Tupelanzahl wird mit Executor parallel gerechnet. */
+    public static final int PARALLEL_SCHWELLE = 4;
+
+    // ein SecureRandom je Thread, damit parallele Worker nicht um eine gemeinsame Instanz konkurrieren
+    private static final ThreadLocal<SecureRandom> ZUFALL = ThreadLocal.withInitial(SecureRandom::new);
+
     /**
      * Ergebnisstruktur mit je vier Arrays für a.x, a.y, b1, b2 und dem Base64-String.
      */
@@ -46,6 +65,22 @@ public class ECCElgamalBlockCipher {
                                  BigInteger p,
                                  BigInteger q,
                                  FiniteFieldEllipticCurve curve) {
+        return encrypt(plaintext, generator, publicKey, p, q, curve, null);
+    }
+
+    /**
+     * Wie encrypt, die Tupel werden aber auf den Executor verteilt (null = sequentiell).
+     * Jedes Tupel hat sein eigenes k und ist damit unabhängig von den anderen; jeder Worker
+     * bekommt einen zusammenhängenden Bereich von Tupeln, das Chiffrat wird in der
+     * ursprünglichen Reihenfolge zusammengesetzt. Der Executor wird nicht heruntergefahren.
+     */
+    public static Result encrypt(String plaintext,
+                                 ECPoint generator,
+                                 ECPoint publicKey,
+                                 BigInteger p,
+                                 BigInteger q,
+                                 FiniteFieldEllipticCurve curve,
+                                 ExecutorService executor) {
         byte[] data = plaintext.getBytes(StandardCharsets.UTF_8);
         int blockSize = (p.bitLength() + 7) / 8;    // Anzahl Bytes, um Feld­element < p darzustellen
         int chunkSize = blockSize - 1;              // Jeder Klartext-Chunk muss < 256^(chunkSize) ≤ p sein
@@ -78,45 +113,18 @@ public class ECCElgamalBlockCipher {
         BigInteger[] b1 = new BigInteger[numTuples];
         BigInteger[] b2 = new BigInteger[numTuples];
 
-        SecureRandom rnd = new SecureRandom();
-        ByteArrayOutputStream outBytes = new ByteArrayOutputStream();
+        // 3) Tupel verschlüsseln (ggf. parallel), Ergebnisse landen an ihrem Index in ax, ay, b1, b2
+        verarbeiteTupel(numTuples, executor, (von, bis) -> verschluessele(von, bis, chunkList,
+                generator, publicKey, p, q, curve, ax, ay, b1, b2));
 
-        // 3) Für jedes Paar (m1Bytes, m2Bytes) in chunkList
+        ByteArrayOutputStream outBytes = new ByteArrayOutputStream();
         for (int t = 0; t < numTuples; t++) {
-            byte[] part1 = chunkList.get(2 * t);       // Länge = chunkSize
-            byte[] part2 = chunkList.get(2 * t + 1);   // Länge = chunkSize
-
-            BigInteger m1 = new BigInteger(1, part1);   // garantiert < 256^(chunkSize) ≤ p
-            BigInteger m2 = new BigInteger(1, part2);
-
-            // 4) Zufälliges k in [1 .. q-1]
-            BigInteger k;
-            do {
-                k = new BigInteger(q.bitLength(), rnd);
-            } while (k.compareTo(BigInteger.ONE) < 0 || k.compareTo(q) >= 0);
-
-            // 5) a = k·G, c = k·Y
-            ECPoint aPoint = generator.multiply(k, curve).normalize(curve);
-            ECPoint cPoint = publicKey.multiply(k, curve).normalize(curve);
-
-            // 6) bb1 = cPoint.x * m1 mod p,  bb2 = cPoint.y * m2 mod p
-            BigInteger c1 = cPoint.getX().mod(p);
-            BigInteger c2 = cPoint.getY().mod(p);
-            BigInteger bb1 = c1.multiply(m1).mod(p);
-            BigInteger bb2 = c2.multiply(m2).mod(p);
-
-            // 7) Speichere Rohdaten
-            ax[t] = aPoint.getX();
-            ay[t] = aPoint.getY();
-            b1[t] = bb1;
-            b2[t] = bb2;
-
-            // 8) Serialisiere A.x, A.y, bb1, bb2 jeweils in blockSize Bytes
+            // 7) Serialisiere A.x, A.y, bb1, bb2 jeweils in blockSize Bytes
             try {
-                outBytes.write(toFixedLength(aPoint.getX(), blockSize));
-                outBytes.write(toFixedLength(aPoint.getY(), blockSize));
-                outBytes.write(toFixedLength(bb1, blockSize));
-                outBytes.write(toFixedLength(bb2, blockSize));
+                outBytes.write(toFixedLength(ax[t], blockSize));
+                outBytes.write(toFixedLength(ay[t], blockSize));
+                outBytes.write(toFixedLength(b1[t], blockSize));
+                outBytes.write(toFixedLength(b2[t], blockSize));
             } catch (IOException ex) {
                 throw new RuntimeException(ex);
             }
@@ -129,6 +137,9 @@ public class ECCElgamalBlockCipher {
 
     /**
      * Wandelt Base64-String zurück in rohe Block-Arrays.
+     * Die Punkte A werden hier einmal geprüft (Vertrauensgrenze), decrypt rechnet ohne erneute Prüfung.
+     *
+     * @throws IllegalArgumentException falls das Chiffrat keinen gültigen Kurvenpunkt A enthält
      */
     public static Result base64ToResult(String base64,
                                         BigInteger p,
@@ -147,6 +158,11 @@ public class ECCElgamalBlockCipher {
             ay[i] = new BigInteger(1, slice(cipher, off + blockSize, blockSize));
             b1[i] = new BigInteger(1, slice(cipher, off + 2*blockSize, blockSize));
             b2[i] = new BigInteger(1, slice(cipher, off + 3*blockSize, blockSize));
+            try {
+                curve.validatePoint(new FiniteFieldECPoint(ax[i], ay[i]));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Ungültiges Chiffrat in Tupel " + i + ": " + e.getMessage(), e);
+            }
         }
         return new Result(ax, ay, b1, b2, base64);
     }
@@ -158,22 +174,32 @@ public class ECCElgamalBlockCipher {
                                  BigInteger privateKey,
                                  BigInteger p,
                                  FiniteFieldEllipticCurve curve) {
+        return decrypt(r, privateKey, p, curve, null);
+    }
+
+    /**
+     * Wie decrypt, die Tupel werden aber auf den Executor verteilt (null = sequentiell);
+     * der Klartext wird in der ursprünglichen Reihenfolge zusammengesetzt.
+     */
+    public static String decrypt(Result r,
+                                 BigInteger privateKey,
+                                 BigInteger p,
+                                 FiniteFieldEllipticCurve curve,
+                                 ExecutorService executor) {
         int num = r.ax.length;
         int blockSize = (p.bitLength() + 7) / 8;
         int chunkSize = blockSize - 1;            // Jeder Klartext-Chunk war chunkSize groß
-        int tupleBytes = 4 * blockSize;           // A.x||A.y||b1||b2
+
+        // 1) - 3) m1, m2 je Tupel (ggf. parallel)
+        BigInteger[] m1Werte = new BigInteger[num];
+        BigInteger[] m2Werte = new BigInteger[num];
+        verarbeiteTupel(num, executor, (von, bis) -> entschluessele(von, bis, r, privateKey, p, curve,
+                m1Werte, m2Werte));
 
         ByteArrayOutputStream out = new ByteArrayOutputStream();
         for (int i = 0; i < num; i++) {
-            // 1) Rekonstruiere Punkt A
-            ECPoint a = new FiniteFieldECPoint(r.ax[i], r.ay[i]).normalize(curve);
-            // 2) c = x·A
-            ECPoint c = a.multiply(privateKey, curve).normalize(curve);
-            BigInteger c1 = c.getX().mod(p);
-            BigInteger c2 = c.getY().mod(p);
-            // 3) m1 = b1 * c1^{-1} mod p,  m2 = b2 * c2^{-1} mod p
-            BigInteger m1 = r.b1[i].multiply(c1.modInverse(p)).mod(p);
-            BigInteger m2 = r.b2[i].multiply(c2.modInverse(p)).mod(p);
+            BigInteger m1 = m1Werte[i];
+            BigInteger m2 = m2Werte[i];
 
             // 4) Schreibe m1 und m2 als jeweils chunkSize Bytes
             byte[] tmp1 = m1.toByteArray();
@@ -215,6 +241,208 @@ public class ECCElgamalBlockCipher {
         return new String(res, 0, trim, StandardCharsets.UTF_8);
     }
 
+    /**
+     * Verschlüsselt einen Datenstrom mit konstantem Speicherbedarf: Es werden jeweils
+     * 2·chunkSize Bytes gelesen (der letzte Block wird mit Nullen aufgefüllt) und jedes Tupel
+     * A.x||A.y||b1||b2 wird sofort mit der festen Breite 4·blockSize geschrieben. Mit base64 = true
+     * hat die Ausgabe dasselbe Format wie Result.base64 der String-Variante.
+     * Der Ausgabestrom wird nicht geschlossen.
+     */
+    public static void encryptStream(InputStream in, OutputStream out,
+                                     ECPoint generator,
+                                     ECPoint publicKey,
+                                     BigInteger p,
+                                     BigInteger q,
+                                     FiniteFieldEllipticCurve curve,
+                                     boolean base64) throws IOException {
+        int blockSize = (p.bitLength() + 7) / 8;
+        int chunkSize = blockSize - 1;
+        OutputStream ziel = base64 ? Base64.getEncoder().wrap(nichtSchliessend(out)) : out;
+
+        byte[] klarBlock = new byte[2 * chunkSize];
+        byte[] tupel = new byte[4 * blockSize];
+        SecureRandom rnd = ZUFALL.get();
+        int gelesen;
+        while ((gelesen = in.readNBytes(klarBlock, 0, klarBlock.length)) > 0) {
+            if (gelesen < klarBlock.length) {
+                Arrays.fill(klarBlock, gelesen, klarBlock.length, (byte) 0);  // Zero-Padding des letzten Blocks
+            }
+            BigInteger m1 = new BigInteger(1, klarBlock, 0, chunkSize);
+            BigInteger m2 = new BigInteger(1, klarBlock, chunkSize, chunkSize);
+
+            BigInteger k;
+            do {
+                k = new BigInteger(q.bitLength(), rnd);
+            } while (k.compareTo(BigInteger.ONE) < 0 || k.compareTo(q) >= 0);
+            // a = k·G und c = k·Y mit einer gemeinsamen Inversion
+            ECPoint[] affin = JacobianPoint.toAffineAll(new JacobianPoint[]{
+                    generator.multiplyJacobian(k, curve), publicKey.multiplyJacobian(k, curve)});
+
+            schreibeFesteLaenge(affin[0].getX(), tupel, 0, blockSize);
+            schreibeFesteLaenge(affin[0].getY(), tupel, blockSize, blockSize);
+            schreibeFesteLaenge(affin[1].getX().multiply(m1).mod(p), tupel, 2 * blockSize, blockSize);
+            schreibeFesteLaenge(affin[1].getY().multiply(m2).mod(p), tupel, 3 * blockSize, blockSize);
+            ziel.write(tupel);
+            if (gelesen < klarBlock.length) {
+                break;
+            }
+        }
+        if (base64) {
+            ziel.close(); // schreibt das Base64-Ende, der eigentliche Strom bleibt offen
+        } else {
+            ziel.flush();
+        }
+    }
+
+    /**
+     * Entschlüsselt einen mit encryptStream (oder encrypt) erzeugten Datenstrom Tupel für Tupel.
+     * Jeder Punkt A wird wie in base64ToResult geprüft. Nullbytes werden zurückgehalten, bis
+     * feststeht, ob noch Nutzdaten folgen; so wird nur das Padding am Ende entfernt.
+     * Der Ausgabestrom wird nicht geschlossen.
+     *
+     * @throws IllegalArgumentException falls ein Tupel keinen gültigen Kurvenpunkt A enthält
+     * @throws IOException              bei einem unvollständigen Tupel am Ende
+     */
+    public static void decryptStream(InputStream in, OutputStream out,
+                                     BigInteger privateKey,
+                                     BigInteger p,
+                                     FiniteFieldEllipticCurve curve,
+                                     boolean base64) throws IOException {
+        int blockSize = (p.bitLength() + 7) / 8;
+        int chunkSize = blockSize - 1;
+        InputStream quelle = base64 ? Base64.getMimeDecoder().wrap(in) : in;
+
+        byte[] tupel = new byte[4 * blockSize];
+        byte[] klarBlock = new byte[2 * chunkSize];
+        BlockStromUtils.OhnePadding klartext = new BlockStromUtils.OhnePadding(out, klarBlock.length);
+        int gelesen;
+        for (int i = 0; (gelesen = quelle.readNBytes(tupel, 0, tupel.length)) > 0; i++) {
+            if (gelesen < tupel.length) {
+                throw new IOException("Unvollständiges Tupel (" + gelesen + " von " + tupel.length + " Bytes)");
+            }
+            ECPoint a = new FiniteFieldECPoint(new BigInteger(1, tupel, 0, blockSize),
+                    new BigInteger(1, tupel, blockSize, blockSize));
+            try {
+                curve.validatePoint(a);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Ungültiges Chiffrat in Tupel " + i + ": " + e.getMessage(), e);
+            }
+            ECPoint c = a.multiply(privateKey, curve);
+            if (c instanceof InfinitePoint || c.getX().signum() == 0 || c.getY().signum() == 0) {
+                // nur bei A kleiner Ordnung (z.B. (0,0)) möglich, nie bei einem echten Chiffrat
+                throw new IllegalArgumentException("Ungültiges Chiffrat in Tupel " + i + ": x·A ist nicht invertierbar");
+            }
+            BigInteger[] cInvers = simultaneInversion.invertiere(new BigInteger[]{c.getX(), c.getY()}, p);
+            BigInteger m1 = new BigInteger(1, tupel, 2 * blockSize, blockSize).multiply(cInvers[0]).mod(p);
+            BigInteger m2 = new BigInteger(1, tupel, 3 * blockSize, blockSize).multiply(cInvers[1]).mod(p);
+            schreibeFesteLaenge(m1, klarBlock, 0, chunkSize);
+            schreibeFesteLaenge(m2, klarBlock, chunkSize, chunkSize);
+            klartext.schreibe(klarBlock, klarBlock.length);
+        }
+        out.flush();
+    }
+
+    /**
+     * Verschlüsselt die Tupel von (einschließlich) bis bis (ausschließlich).
+     * Alle a = k·G und c = k·Y des Bereichs werden in Jacobi-Koordinaten berechnet und danach
+     * mit einer einzigen Inversion in affine Koordinaten umgerechnet.
+     */
+    private static void verschluessele(int von, int bis, List<byte[]> chunkList,
+                                       ECPoint generator, ECPoint publicKey,
+                                       BigInteger p, BigInteger q, FiniteFieldEllipticCurve curve,
+                                       BigInteger[] ax, BigInteger[] ay, BigInteger[] b1, BigInteger[] b2) {
+        SecureRandom rnd = ZUFALL.get();
+        JacobianPoint[] punkte = new JacobianPoint[2 * (bis - von)];
+        for (int t = von; t < bis; t++) {
+            // 4) Zufälliges k in [1 .. q-1]
+            BigInteger k;
+            do {
+                k = new BigInteger(q.bitLength(), rnd);
+            } while (k.compareTo(BigInteger.ONE) < 0 || k.compareTo(q) >= 0);
+
+            // 5) a = k·G, c = k·Y
+            punkte[2 * (t - von)] = generator.multiplyJacobian(k, curve);
+            punkte[2 * (t - von) + 1] = publicKey.multiplyJacobian(k, curve);
+        }
+        ECPoint[] affin = JacobianPoint.toAffineAll(punkte);
+
+        for (int t = von; t < bis; t++) {
+            BigInteger m1 = new BigInteger(1, chunkList.get(2 * t));       // garantiert < 256^(chunkSize) ≤ p
+            BigInteger m2 = new BigInteger(1, chunkList.get(2 * t + 1));
+
+            ECPoint aPoint = affin[2 * (t - von)];
+            ECPoint cPoint = affin[2 * (t - von) + 1];
+
+            // 6) bb1 = cPoint.x * m1 mod p,  bb2 = cPoint.y * m2 mod p
+            ax[t] = aPoint.getX();
+            ay[t] = aPoint.getY();
+            b1[t] = cPoint.getX().mod(p).multiply(m1).mod(p);
+            b2[t] = cPoint.getY().mod(p).multiply(m2).mod(p);
+        }
+    }
+
+    /**
+     * Entschlüsselt die Tupel von (einschließlich) bis bis (ausschließlich): alle c = x·A des
+     * Bereichs mit einer gemeinsamen Rückrechnung in affine Koordinaten, alle c1^{-1}, c2^{-1}
+     * mit einer einzigen Inversion.
+     */
+    private static void entschluessele(int von, int bis, Result r, BigInteger privateKey,
+                                       BigInteger p, FiniteFieldEllipticCurve curve,
+                                       BigInteger[] m1Werte, BigInteger[] m2Werte) {
+        // 1) c = x·A (A bereits in base64ToResult geprüft)
+        JacobianPoint[] punkte = new JacobianPoint[bis - von];
+        for (int i = von; i < bis; i++) {
+            punkte[i - von] = new FiniteFieldECPoint(r.ax[i], r.ay[i]).multiplyJacobian(privateKey, curve);
+        }
+        ECPoint[] cPunkte = JacobianPoint.toAffineAll(punkte);
+
+        // 2) c1^{-1}, c2^{-1}
+        BigInteger[] cWerte = new BigInteger[2 * (bis - von)];
+        for (int i = 0; i < cPunkte.length; i++) {
+            cWerte[2 * i] = cPunkte[i].getX();
+            cWerte[2 * i + 1] = cPunkte[i].getY();
+        }
+        BigInteger[] cInvers = simultaneInversion.invertiere(cWerte, p);
+
+        // 3) m1 = b1 * c1^{-1} mod p,  m2 = b2 * c2^{-1} mod p
+        for (int i = von; i < bis; i++) {
+            m1Werte[i] = r.b1[i].multiply(cInvers[2 * (i - von)]).mod(p);
+            m2Werte[i] = r.b2[i].multiply(cInvers[2 * (i - von) + 1]).mod(p);
+        }
+    }
+
+    /**
+     * Ruft bereich(von, bis) für die Tupel 0 .. anzahl - 1 auf. Mit Executor wird in so viele
+     * zusammenhängende Bereiche geteilt, wie Prozessoren vorhanden sind (je Worker ein Bereich,
+     * damit die gemeinsame Inversion pro Bereich erhalten bleibt); sonst ein Aufruf im aufrufenden Thread.
+     */
+    private static void verarbeiteTupel(int anzahl, ExecutorService executor, BiConsumer<Integer, Integer> bereich) {
+        if (executor == null || anzahl < PARALLEL_SCHWELLE) {
+            bereich.accept(0, anzahl);
+            return;
+        }
+        int teile = Math.min(anzahl, Runtime.getRuntime().availableProcessors());
+        List<Callable<Void>> aufgaben = new ArrayList<>(teile);
+        for (int i = 0; i < teile; i++) {
+            int von = (int) ((long) anzahl * i / teile);
+            int bis = (int) ((long) anzahl * (i + 1) / teile);
+            aufgaben.add(() -> {
+                bereich.accept(von, bis);
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> future : executor.invokeAll(aufgaben)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Tupelverarbeitung wurde unterbrochen", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Fehler bei der Tupelverarbeitung", e.getCause());
+        }
+    }
+
     private static byte[] slice(byte[] src, int off, int len) {
         byte[] dst = new byte[len]; System.arraycopy(src, off, dst, 0, len); return dst;
     }
@@ -0,0 +1,164 @@
+package org.ellipticCurveFinal;
+
+import org.scrum1_6.HybridUtils;
+
+import javax.crypto.Cipher;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+import static org.scrum1_6.BlockStromUtils.schreibeFesteLaenge;
+
+/**
+ * Hybridverfahren nach dem Muster von ECIES: pro Nachricht nur eine EC-Schlüsselvereinbarung,
+ * der eigentliche Text wird mit AES-GCM aus javax.crypto verschlüsselt.
+ *
+ * Sender: zufälliges k, A = k·G, S = (8k)·Y. Empfänger: S = x·(8A). Aus S.x, S.y und A wird mit
+ * SHA-256 ein 256-Bit-AES-Schlüssel abgeleitet. Die Multiplikation mit dem Kofaktor 8 bildet A
+ * in die Untergruppe der Ordnung q ab, sodass ein manipuliertes A kleiner Ordnung nichts über
+ * x verrät (und die GLV-Multiplikation korrekt bleibt).
+ *
+ * Format: "ECH" | Version (1 Byte) | A.x | A.y (je blockSize Bytes) | IV (12 Bytes) | AES-GCM-Chiffrat mit Tag.
+ * Der Kopf bis einschließlich IV ist als Associated Data authentifiziert. Gegenüber
+ * ECCElgamalBlockCipher kostet eine Nachricht damit zwei Skalar-Multiplikationen statt zwei pro
+ * Tupel, und das Chiffrat ist nur um den festen Kopf und das Tag länger als der Klartext.
+ *
+ * Als Text wird das Chiffrat mit der Kennung "ECH1:" vor dem Base64 geschrieben (siehe HybridUtils),
+ * damit es nie mit einer Base64-Tupelfolge von ECCElgamalBlockCipher verwechselt wird.
+ */
+public class ECCHybridCipher {
+
+    public static final byte VERSION = 1;
+    /** Kennung der Textform, siehe encryptToBase64. */
+    public static final String KENNUNG = "ECH" + VERSION;
+    private static final byte[] MAGIC = {'E', 'C', 'H'};
+    private static final int IV_LAENGE = 12;
+    private static final BigInteger KOFAKTOR = BigInteger.valueOf(8);
+
+    private static final SecureRandom random = new SecureRandom();
+
+    /**
+     * @param klartext  beliebige Bytes
+     * @param generator G der Ordnung q
+     * @param publicKey Y = x·G des Empfängers
+     * @return Kopf und AES-GCM-Chiffrat
+     */
+    public static byte[] encrypt(byte[] klartext, ECPoint generator, ECPoint publicKey, BigInteger q,
+                                 FiniteFieldEllipticCurve curve) {
+        int blockSize = (curve.getP().bitLength() + 7) / 8;
+        BigInteger k;
+        do {
+            k = new BigInteger(q.bitLength(), random);
+        } while (k.signum() <= 0 || k.compareTo(q) >= 0);
+
+        // A = k·G und S = (8k)·Y mit einer gemeinsamen Inversion
+        ECPoint[] affin = JacobianPoint.toAffineAll(new JacobianPoint[]{
+                generator.multiplyJacobian(k, curve),
+                publicKey.multiplyJacobian(k.multiply(KOFAKTOR).mod(q), curve)});
+        ECPoint a = affin[0];
+        ECPoint s = affin[1];
+
+        byte[] iv = new byte[IV_LAENGE];
+        random.nextBytes(iv);
+        byte[] kopf = schreibeKopf(a, iv, blockSize);
+        byte[] chiffrat = HybridUtils.aesGcm(Cipher.ENCRYPT_MODE, leiteSchluesselAb(s, a, blockSize), iv, kopf, klartext);
+
+        byte[] ergebnis = Arrays.copyOf(kopf, kopf.length + chiffrat.length);
+        System.arraycopy(chiffrat, 0, ergebnis, kopf.length, chiffrat.length);
+        return ergebnis;
+    }
+
+    /**
+     * @throws IllegalArgumentException bei unbekanntem Format oder Version, ungültigem Punkt A
+     *                                  oder wenn die Authentifizierung fehlschlägt (falscher
+     *                                  Schlüssel oder verändertes Chiffrat)
+     */
+    public static byte[] decrypt(byte[] daten, BigInteger privateKey, FiniteFieldEllipticCurve curve) {
+        int blockSize = (curve.getP().bitLength() + 7) / 8;
+        int kopfLaenge = MAGIC.length + 1 + 2 * blockSize + IV_LAENGE;
+        if (daten.length < kopfLaenge + HybridUtils.TAG_BITS / 8
+                || !Arrays.equals(daten, 0, MAGIC.length, MAGIC, 0, MAGIC.length)) {
+            throw new IllegalArgumentException("Kein Hybrid-Chiffrat.");
+        }
+        if (daten[MAGIC.length] != VERSION) {
+            throw new IllegalArgumentException("Nicht unterstützte Version " + daten[MAGIC.length] + ".");
+        }
+        int off = MAGIC.length + 1;
+        ECPoint a = new FiniteFieldECPoint(new BigInteger(1, daten, off, blockSize),
+                new BigInteger(1, daten, off + blockSize, blockSize));
+        curve.validatePoint(a);
+
+        // S = x·(8A); 8A liegt in der Untergruppe der Ordnung q
+        JacobianPoint achtA = JacobianPoint.fromAffine(a, curve);
+        achtA.twice();
+        achtA.twice();
+        achtA.twice();
+        if (achtA.isInfinity()) {
+            throw new IllegalArgumentException("Der Punkt A hat kleine Ordnung.");
+        }
+        ECPoint s = SubgroupPoint.of(achtA.toAffine()).multiply(privateKey, curve);
+        if (s instanceof InfinitePoint) {
+            throw new IllegalArgumentException("Der Punkt A passt nicht zum Schlüssel.");
+        }
+
+        byte[] kopf = Arrays.copyOf(daten, kopfLaenge);
+        byte[] iv = Arrays.copyOfRange(daten, kopfLaenge - IV_LAENGE, kopfLaenge);
+        byte[] chiffrat = Arrays.copyOfRange(daten, kopfLaenge, daten.length);
+        return HybridUtils.aesGcm(Cipher.DECRYPT_MODE, leiteSchluesselAb(s, a, blockSize), iv, kopf, chiffrat);
+    }
+
+    /**
+     * Verschlüsselt einen UTF-8-Text und liefert das Chiffrat als "ECH1:" + Base64.
+     */
+    public static String encryptToBase64(String text, ECPoint generator, ECPoint publicKey, BigInteger q,
+                                         FiniteFieldEllipticCurve curve) {
+        return HybridUtils.mitKennung(KENNUNG,
+                encrypt(text.getBytes(StandardCharsets.UTF_8), generator, publicKey, q, curve));
+    }
+
+    /**
+     * @throws IllegalArgumentException bei fehlender Kennung oder aus denselben Gründen wie decrypt
+     */
+    public static String decryptFromBase64(String text, BigInteger privateKey, FiniteFieldEllipticCurve curve) {
+        byte[] daten = HybridUtils.ohneKennung(text, KENNUNG);
+        return new String(decrypt(daten, privateKey, curve), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * true, falls der Text die Kennung "ECH1:" trägt, also von encryptToBase64 stammt.
+     */
+    public static boolean isHybrid(String text) {
+        return HybridUtils.hatKennung(text, KENNUNG);
+    }
+
+    private static byte[] schreibeKopf(ECPoint a, byte[] iv, int blockSize) {
+        byte[] kopf = new byte[MAGIC.length + 1 + 2 * blockSize + IV_LAENGE];
+        System.arraycopy(MAGIC, 0, kopf, 0, MAGIC.length);
+        kopf[MAGIC.length] = VERSION;
+        int off = MAGIC.length + 1;
+        schreibeFesteLaenge(a.getX(), kopf, off, blockSize);
+        schreibeFesteLaenge(a.getY(), kopf, off + blockSize, blockSize);
+        System.arraycopy(iv, 0, kopf, off + 2 * blockSize, IV_LAENGE);
+        return kopf;
+    }
+
+    /**
+     * KDF nach ANSI X9.63 mit einem Block: SHA-256(S.x | S.y | Zähler 1 | A.x | A.y).
+     */
+    private static byte[] leiteSchluesselAb(ECPoint s, ECPoint a, int blockSize) {
+        try {
+            byte[] eingabe = new byte[4 * blockSize + 4];
+            schreibeFesteLaenge(s.getX(), eingabe, 0, blockSize);
+            schreibeFesteLaenge(s.getY(), eingabe, blockSize, blockSize);
+            eingabe[2 * blockSize + 3] = 1;  // Zähler 1 als 4-Byte-Zahl
+            schreibeFesteLaenge(a.getX(), eingabe, 2 * blockSize + 4, blockSize);
+            schreibeFesteLaenge(a.getY(), eingabe, 3 * blockSize + 4, blockSize);
+            return MessageDigest.getInstance("SHA-256").digest(eingabe);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 nicht verfügbar", e);
+        }
+    }
+}
@@ -66,7 +66,7 @@ public class ECCSignature {
             } while (k.compareTo(BigInteger.ZERO) <= 0 || k.compareTo(q) >= 0);
 
             // 3) (u, v) = k·g
-            ECPoint point = generator.multiply(k, curve).normalize(curve);
+            ECPoint point = generator.multiply(k, curve);
             BigInteger u = point.getX();
             r = u.mod(q);
             if (r.equals(BigInteger.ZERO)) {
@@ -133,10 +133,8 @@ public class ECCSignature {
         BigInteger u1 = h.multiply(w).mod(q);
         BigInteger u2 = r.multiply(w).mod(q);
 
-        // 5) (u', v') = u1·g + u2·y
-        ECPoint p1 = generator.multiply(u1, curve).normalize(curve);
-        ECPoint p2 = publicKey.multiply(u2, curve).normalize(curve);
-        ECPoint sum = p1.add(p2, curve).normalize(curve);
+        // 5) (u', v') = u1·g + u2·y in einem gemeinsamen Durchlauf
+        ECPoint sum = ECPoint.multiScalarMultiply(u1, generator, u2, publicKey, curve);
 
         // Wenn Summe Punkt im Unendlichen ist, kann keine gültige r berechnet werden
         if (sum instanceof InfinitePoint) {
@@ -1,6 +1,8 @@
 package org.ellipticCurveFinal;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
 
 public abstract class ECPoint {
 
@@ -17,6 +19,8 @@ public abstract class ECPoint {
     /**
      * Normalisiert den Punkt: Reduziert die Koordinaten modulo p und überprüft, ob der
      * normalisierte Punkt auf der Kurve liegt. Ist dies nicht der Fall, wird der Unendlichkeitspunkt zurückgegeben.
+     * Die Punktarithmetik (add, doublePoint, multiply) ruft normalize nicht auf, ihre Ergebnisse
+     * sind bereits reduziert; Punkte von außen prüft FiniteFieldEllipticCurve.validatePoint.
      */
     public abstract ECPoint normalize(FiniteFieldEllipticCurve curve);
 
@@ -31,17 +35,146 @@ public abstract class ECPoint {
     public abstract ECPoint doublePoint(FiniteFieldEllipticCurve curve);
 
     /**
-     * Skalar-Multiplikation (Double-and-Add-Algorithmus).
+     * Skalar-Multiplikation (Double-and-Add-Algorithmus, links-nach-rechts).
+     * Gerechnet wird in Jacobi-Koordinaten ohne Inversion; erst das Ergebnis wird
+     * einmal in affine Koordinaten umgerechnet.
      */
     public ECPoint multiply(BigInteger scalar, FiniteFieldEllipticCurve curve) {
-        ECPoint result = InfinitePoint.getInstance();
-        ECPoint temp = this;
-        for (int i = 0; i < scalar.bitLength(); i++) {
-            if (scalar.testBit(i)) {
-                result = result.add(temp, curve);
+        return multiplyJacobian(scalar, curve).toAffine();
+    }
+
+    /**
+     * scalar·this in Jacobi-Koordinaten, ohne Rückrechnung in affine Koordinaten.
+     * Der Skalar wird in wNAF umkodiert; ist auf der Kurve GLV eingeschaltet und dieser Punkt ein
+     * SubgroupPoint, wird er vorher in zwei halb so lange Skalare zerlegt und als
+     * Doppel-Skalar-Multiplikation gerechnet.
+     * Unterklassen mit vorberechneten Tabellen (FixedBasePoint) überschreiben diese Methode.
+     */
+    JacobianPoint multiplyJacobian(BigInteger scalar, FiniteFieldEllipticCurve curve) {
+        List<ECPoint> basen = new ArrayList<>();
+        List<BigInteger> skalare = new ArrayList<>();
+        addBasis(basen, skalare, this, scalar, glvFuer(this, curve));
+        return interleave(basen, skalare, curve);
+    }
+
+    /**
+     * k1·P1 + k2·P2 in einem Durchlauf (Shamir-Trick), z.B. u1·g + u2·y bei der ECDSA-Verifikation.
+     */
+    public static ECPoint multiScalarMultiply(BigInteger k1, ECPoint p1, BigInteger k2, ECPoint p2,
+                                              FiniteFieldEllipticCurve curve) {
+        return multiScalarMultiply(new ECPoint[]{p1, p2}, new BigInteger[]{k1, k2}, curve);
+    }
+
+    /**
+     * Σ k_i·P_i nach Straus/Shamir mit verschränkter wNAF: Alle Skalare teilen sich eine
+     * gemeinsame Folge von Verdopplungen, jeder Punkt bringt nur seine kleine Tabelle ungerader
+     * Vielfacher mit. Für zwei Punkte entfällt so etwa die Hälfte der Verdopplungen.
+     * Punkte mit eigener Tabelle (FixedBasePoint) werden getrennt über ihre Tabelle gerechnet,
+     * da sie gar keine Verdopplungen benötigen. Mit GLV wird jeder übrige SubgroupPoint zusätzlich
+     * in P und φ(P) mit halb so langen Skalaren zerlegt.
+     *
+     * @param points  Punkte
+     * @param scalars zugehörige Skalare (beliebiges Vorzeichen)
+     * @return die Summe in affinen Koordinaten
+     */
+    public static ECPoint multiScalarMultiply(ECPoint[] points, BigInteger[] scalars, FiniteFieldEllipticCurve curve) {
+        if (points.length != scalars.length) {
+            throw new IllegalArgumentException("Anzahl der Punkte und Skalare muss übereinstimmen.");
+        }
+        JacobianPoint result = JacobianPoint.infinity(curve);
+        List<ECPoint> basen = new ArrayList<>();
+        List<BigInteger> skalare = new ArrayList<>();
+        for (int i = 0; i < points.length; i++) {
+            if (points[i] instanceof FixedBasePoint) {
+                result.add(points[i].multiplyJacobian(scalars[i], curve));
+            } else {
+                addBasis(basen, skalare, points[i], scalars[i], glvFuer(points[i], curve));
+            }
+        }
+        result.add(interleave(basen, skalare, curve));
+        return result.toAffine();
+    }
+
+    /**
+     * GLV nur für Punkte, die sicher in der Untergruppe der Ordnung q liegen.
+     */
+    private static GLVEndomorphism glvFuer(ECPoint punkt, FiniteFieldEllipticCurve curve) {
+        return punkt instanceof SubgroupPoint ? curve.getGLV() : null;
+    }
+
+    /**
+     * Nimmt k·P in die gemeinsame Verdopplungskette auf, mit GLV als k1·P + k2·φ(P).
+     */
+    private static void addBasis(List<ECPoint> basen, List<BigInteger> skalare, ECPoint punkt,
+                                 BigInteger skalar, GLVEndomorphism glv) {
+        if (skalar.signum() == 0 || punkt instanceof InfinitePoint) {
+            return;
+        }
+        if (glv == null) {
+            basen.add(punkt);
+            skalare.add(skalar);
+            return;
+        }
+        BigInteger[] k = glv.decompose(skalar);
+        addBasis(basen, skalare, punkt, k[0], null);
+        addBasis(basen, skalare, glv.apply(punkt), k[1], null);
+    }
+
+    /**
+     * Gemeinsame Verdopplungskette für Σ skalare_j·basen_j mit wNAF-Ziffern je Basis.
+     */
+    private static JacobianPoint interleave(List<ECPoint> basen, List<BigInteger> skalare,
+                                            FiniteFieldEllipticCurve curve) {
+        int n = basen.size();
+        int[][] ziffern = new int[n][];
+        JacobianPoint[][] positiv = new JacobianPoint[n][];
+        JacobianPoint[][] negativ = new JacobianPoint[n][];
+        List<JacobianPoint> alle = new ArrayList<>();
+        int laenge = 0;
+        for (int j = 0; j < n; j++) {
+            int w = WNAF.standardWidth(skalare.get(j).bitLength());
+            ziffern[j] = WNAF.recode(skalare.get(j), w);
+            laenge = Math.max(laenge, ziffern[j].length);
+
+            // ungerade Vielfache P, 3P, ..., (2^(w-1) - 1)·P, affin für gemischte Additionen
+            int groesse = 1 << (w - 2);
+            positiv[j] = new JacobianPoint[groesse];
+            negativ[j] = new JacobianPoint[groesse];
+            JacobianPoint vielfaches = JacobianPoint.fromAffine(basen.get(j), curve);
+            JacobianPoint doppelt = vielfaches.copy();
+            doppelt.twice();
+            for (int t = 0; t < groesse; t++) {
+                if (t > 0) {
+                    vielfaches.add(doppelt);
+                }
+                positiv[j][t] = vielfaches.copy();
+                alle.add(positiv[j][t]);
+            }
+        }
+        // alle Tabellen zusammen mit einer Inversion auf Z = 1 bringen, erst danach negieren
+        JacobianPoint.normalizeAll(alle.toArray(new JacobianPoint[0]));
+        for (int j = 0; j < n; j++) {
+            for (int t = 0; t < positiv[j].length; t++) {
+                negativ[j][t] = positiv[j][t].copy();
+                negativ[j][t].negate();
+            }
+        }
+
+        JacobianPoint kette = JacobianPoint.infinity(curve);
+        for (int i = laenge - 1; i >= 0; i--) {
+            kette.twice();
+            for (int j = 0; j < n; j++) {
+                if (i >= ziffern[j].length) {
+                    continue;
+                }
+                int d = ziffern[j][i];
+                if (d > 0) {
+                    kette.add(positiv[j][d >>> 1]);
+                } else if (d < 0) {
+                    kette.add(negativ[j][(-d) >>> 1]);
+                }
             }
-            temp = temp.doublePoint(curve);
         }
-        return result;
+        return kette;
     }
 }
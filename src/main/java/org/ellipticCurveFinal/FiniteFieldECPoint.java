@@ -54,7 +54,7 @@ public class FiniteFieldECPoint extends ECPoint {
         BigInteger newY = lambda.multiply(this.x.subtract(newX))
                 .subtract(this.y).mod(p);
 
-        return new FiniteFieldECPoint(newX, newY).normalize(curve);
+        return new FiniteFieldECPoint(newX, newY);
     }
 
     @Override
@@ -76,7 +76,7 @@ public class FiniteFieldECPoint extends ECPoint {
         BigInteger newY = lambda.multiply(this.x.subtract(newX))
                 .subtract(this.y).mod(p);
 
-        return new FiniteFieldECPoint(newX, newY).normalize(curve);
+        return new FiniteFieldECPoint(newX, newY);
     }
 
     @Override
@@ -1,12 +1,12 @@
 package org.ellipticCurveFinal;
 
+import org.scrum1_3.MontgomeryKontext;
+
 import java.math.BigInteger;
 import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.List;
 
-import static org.scrum1_3.schnelleExponentiation.schnelleExponentiation;
-
 public class FiniteFieldEllipticCurve {
 
     // Feste Kurvenparameter: y^2 = x^3 - x
@@ -14,6 +14,8 @@ public class FiniteFieldEllipticCurve {
     private final BigInteger b = BigInteger.ZERO;          // b = 0
     private final BigInteger p;  // Primzahl des endlichen Körpers
     private BigInteger q;        // Untergruppenordnung (q = N/8, sofern gültig)
+    private GLVEndomorphism glv; // null = GLV aus (Standard)
+    private volatile MontgomeryKontext feld; // Körperarithmetik mod p für JacobianPoint, bei Bedarf erzeugt
 
     public FiniteFieldEllipticCurve(BigInteger p) {
         this.p = p;
@@ -36,8 +38,46 @@ public class FiniteFieldEllipticCurve {
         return q;
     }
 
+    /**
+     * Montgomery-Arithmetik modulo p auf long[]-Limbs, auf der die Punktarithmetik in
+     * Jacobi-Koordinaten läuft. Wird beim ersten Zugriff einmal pro Kurve aufgebaut.
+     */
+    public MontgomeryKontext getFeld() {
+        MontgomeryKontext k = feld;
+        if (k == null) {
+            k = new MontgomeryKontext(p);
+            feld = k;
+        }
+        return k;
+    }
+
     public void setQ(BigInteger q) {
         this.q = q;
+        this.glv = null;
+    }
+
+    /**
+     * Schaltet die GLV-Skalar-Multiplikation (siehe GLVEndomorphism) auf dieser Kurve ein.
+     * Sie wird nur für SubgroupPoint-Punkte genutzt, deren Zugehörigkeit zur Untergruppe der
+     * Ordnung q feststeht; alle anderen Punkte werden weiterhin ohne GLV multipliziert.
+     * q muss gesetzt sein.
+     *
+     * @param generator Punkt der Ordnung q
+     * @throws IllegalArgumentException falls q oder der Generator nicht passen
+     */
+    public void enableGLV(ECPoint generator) {
+        this.glv = new GLVEndomorphism(this, generator);
+    }
+
+    public void disableGLV() {
+        this.glv = null;
+    }
+
+    /**
+     * @return die GLV-Zerlegung, oder null, falls GLV nicht eingeschaltet ist
+     */
+    public GLVEndomorphism getGLV() {
+        return glv;
     }
 
     /**
@@ -55,6 +95,64 @@ public class FiniteFieldEllipticCurve {
         return left.equals(right);
     }
 
+    /**
+     * Prüfung an Vertrauensgrenzen (Konfigurationsdateien, Chiffrat, fremde öffentliche Schlüssel):
+     * Die Koordinaten müssen in [0, p) liegen und die Kurvengleichung erfüllen. Die interne
+     * Punktarithmetik prüft ihre Ergebnisse nicht erneut, daher muss jeder Punkt von außen hier durch.
+     * Punkte kleiner Ordnung (8·P = O, z.B. (0,0), (1,0), (p-1,0)) werden ebenfalls abgelehnt:
+     * sie kommen in keinem echten Schlüssel oder Chiffrat vor, und x·P wäre O oder hätte eine
+     * Koordinate 0, die sich bei der Entschlüsselung nicht invertieren lässt.
+     *
+     * @param point zu prüfender Punkt (der Unendlichkeitspunkt ist nicht zulässig)
+     * @return point
+     * @throws IllegalArgumentException falls der Punkt ungültig ist
+     */
+    public ECPoint validatePoint(ECPoint point) {
+        if (point instanceof InfinitePoint) {
+            throw new IllegalArgumentException("Der Unendlichkeitspunkt ist hier nicht zulässig.");
+        }
+        BigInteger x = point.getX();
+        BigInteger y = point.getY();
+        if (x.signum() < 0 || x.compareTo(p) >= 0 || y.signum() < 0 || y.compareTo(p) >= 0) {
+            throw new IllegalArgumentException("Koordinaten außerhalb von [0, p): " + point);
+        }
+        if (!isValidPoint(point)) {
+            throw new IllegalArgumentException("Punkt liegt nicht auf der Kurve: " + point);
+        }
+        if (y.signum() == 0 || hatKleineOrdnung(point)) {
+            throw new IllegalArgumentException("Punkt hat kleine Ordnung: " + point);
+        }
+        return point;
+    }
+
+    /**
+     * 8·P = O über drei Verdopplungen in Jacobi-Koordinaten (8 ist der Kofaktor von q).
+     */
+    private boolean hatKleineOrdnung(ECPoint point) {
+        JacobianPoint achtP = JacobianPoint.fromAffine(point, this);
+        achtP.twice();
+        achtP.twice();
+        achtP.twice();
+        return achtP.isInfinity();
+    }
+
+    /**
+     * Wie validatePoint, zusätzlich muss q·P = O gelten. Nur so geprüfte Punkte werden mit
+     * GLV multipliziert; die Prüfung kostet eine Skalar-Multiplikation und ist daher für Punkte
+     * gedacht, die einmal geladen und oft benutzt werden (Generator, öffentliche Schlüssel).
+     *
+     * @param q Ordnung der Untergruppe
+     * @return der Punkt als SubgroupPoint
+     * @throws IllegalArgumentException falls der Punkt ungültig ist oder nicht in der Untergruppe liegt
+     */
+    public SubgroupPoint validateSubgroupPoint(ECPoint point, BigInteger q) {
+        validatePoint(point);
+        if (!(point.multiply(q, this) instanceof InfinitePoint)) {
+            throw new IllegalArgumentException("Punkt liegt nicht in der Untergruppe der Ordnung q: " + point);
+        }
+        return new SubgroupPoint(point.getX(), point.getY());
+    }
+
     /**
      * Findet einen Generator per Kofaktor-Methode
      * -------------------------------------------
@@ -69,43 +167,43 @@ public class FiniteFieldEllipticCurve {
     public ECPoint findGenerator(BigInteger q) {
         SecureRandom random = new SecureRandom();
         BigInteger legExp = p.subtract(BigInteger.ONE).divide(BigInteger.valueOf(2));
-        BigInteger eight = BigInteger.valueOf(8);
+        // Alle Exponentiationen laufen modulo p → Montgomery-Kontext einmal aufbauen
+        MontgomeryKontext kontext = new MontgomeryKontext(p);
 
         while (true) {
             // Zufälliges x in F_p
             BigInteger x = new BigInteger(p.bitLength(), random).mod(p);
             // r = x^3 - x mod p
-            BigInteger r = schnelleExponentiation(x, BigInteger.valueOf(3), p).subtract(x).mod(p);
+            BigInteger r = kontext.schnelleExponentiation(x, BigInteger.valueOf(3)).subtract(x).mod(p);
             // Legendre-Symbol test: r^((p-1)/2) mod p == 1
-            if (!schnelleExponentiation(r, legExp, p).equals(BigInteger.ONE)) continue;
+            if (!kontext.schnelleExponentiation(r, legExp).equals(BigInteger.ONE)) continue;
             // Bestimme ob r^((p-1)/4) = 1 oder -1 mod p
             BigInteger exp4 = p.subtract(BigInteger.ONE).divide(BigInteger.valueOf(4));
-            BigInteger test = schnelleExponentiation(r, exp4, p);
+            BigInteger test = kontext.schnelleExponentiation(r, exp4);
             BigInteger exp8 = p.add(BigInteger.valueOf(3)).divide(BigInteger.valueOf(8));
             BigInteger y;
 
             if (test.equals(BigInteger.ONE)) {
                 //Erster Fall: 1
                 //y = r^(p + 3) / 8 mod p
-                y = schnelleExponentiation(r, exp8, p);
+                y = kontext.schnelleExponentiation(r, exp8);
             } else if (test.equals(p.subtract(BigInteger.ONE))) {
                 //Zweiter Fall: -1
                 //y = ((p + 1) / 2) * (4r)^((p + 3) / 8) mod p
                 BigInteger fourR = r.multiply(BigInteger.valueOf(4)).mod(p);
-                y = schnelleExponentiation(fourR, exp8, p).multiply(p.add(BigInteger.ONE).divide(BigInteger.TWO)).mod(p);
+                y = kontext.schnelleExponentiation(fourR, exp8).multiply(p.add(BigInteger.ONE).divide(BigInteger.TWO)).mod(p);
             } else {
                 //Weder 1 noch -1
                 continue;
             }
             // Falls nötig, nochmals prüfen
-            if (!schnelleExponentiation(y, BigInteger.TWO, p).equals(r)) continue;
+            if (!kontext.schnelleExponentiation(y, BigInteger.TWO).equals(r)) continue;
 
-            // Setzen des Punktes
-            ECPoint g0 = new FiniteFieldECPoint(x, y).normalize(this);
-            if (!isValidPoint(g0)) continue;
+            // Setzen des Punktes (x, y < p und y² = r wurden oben bereits geprüft)
+            ECPoint g0 = new FiniteFieldECPoint(x, y);
 
             // Kofaktor-Multiplikation. Nur Punkte mit Ordnung, die einen Faktor von q enthalten überleben das hier
-            ECPoint g = g0.multiply(eight, this);
+            ECPoint g = g0.doublePoint(this).doublePoint(this).doublePoint(this);
             // Rückgabe, sobald g != O
             if (!(g instanceof InfinitePoint)) {
                 return g;
@@ -258,7 +356,7 @@ public class FiniteFieldEllipticCurve {
              * @param p die Primzahl, für die p ≡ 1 mod 4 gilt
              * @return t mit t² ≡ -1 mod p
              */
-            private static BigInteger findSqrtOfMinusOne(BigInteger p) {
+            static BigInteger findSqrtOfMinusOne(BigInteger p) {
                 System.out.println("[Cornacchia] Suche effizientes t mit t² ≡ -1 mod p...");
                 SecureRandom random = new SecureRandom();
                 BigInteger pMinus1 = p.subtract(BigInteger.ONE);
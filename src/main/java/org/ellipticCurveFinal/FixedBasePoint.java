@@ -0,0 +1,247 @@
+package org.ellipticCurveFinal;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Fester Basispunkt (z.B. der Generator G der Domain-Parameter) mit vorberechneter Tabelle
+ * für die Skalar-Multiplikation mit festem Fenster.
+ *
+ * Der Skalar k wird in Ziffern k_i zur Basis 2^w zerlegt, k = Σ k_i·2^(w·i). Die Tabelle
+ * enthält für jede Stelle i alle Vielfachen j·2^(w·i)·G (j = 1 .. 2^w - 1) in affiner Form,
+ * sodass k·G = Σ T[i][k_i] nur noch aus ⌈bits/w⌉ gemischten Additionen besteht – ganz ohne
+ * Verdopplungen. Die Tabelle wird nach dem Aufbau nicht mehr verändert und kann von
+ * mehreren Threads gleichzeitig gelesen werden.
+ */
+public class FixedBasePoint extends FiniteFieldECPoint {
+
+    /** Standard-Fensterbreite: 31 Punkte pro Stelle, bei 256 Bit etwa 1600 Tabellenpunkte. */
+    public static final int STANDARD_FENSTERBREITE = 5;
+
+    private final BigInteger p;
+    private final int maxBits;
+    private final int fensterBreite;
+    private final JacobianPoint[][] tabelle;   // [i][j-1] = j·2^(w·i)·G mit Z = 1
+
+    /**
+     * @param basis   fester Punkt auf der Kurve
+     * @param curve   Kurve
+     * @param maxBits maximale Bitlänge der Skalare (z.B. q.bitLength()); längere Skalare
+     *                werden mit der allgemeinen Multiplikation gerechnet
+     */
+    public FixedBasePoint(ECPoint basis, FiniteFieldEllipticCurve curve, int maxBits) {
+        this(basis, curve, maxBits, STANDARD_FENSTERBREITE);
+    }
+
+    public FixedBasePoint(ECPoint basis, FiniteFieldEllipticCurve curve, int maxBits, int fensterBreite) {
+        super(basis.getX(), basis.getY());
+        if (fensterBreite < 1 || fensterBreite > 8) {
+            throw new IllegalArgumentException("Die Fensterbreite muss zwischen 1 und 8 liegen.");
+        }
+        this.p = curve.getP();
+        this.maxBits = maxBits;
+        this.fensterBreite = fensterBreite;
+        this.tabelle = baueTabelle(basis, curve);
+    }
+
+    private FixedBasePoint(ECPoint basis, FiniteFieldEllipticCurve curve, int maxBits, int fensterBreite,
+                           JacobianPoint[][] tabelle) {
+        super(basis.getX(), basis.getY());
+        this.p = curve.getP();
+        this.maxBits = maxBits;
+        this.fensterBreite = fensterBreite;
+        this.tabelle = tabelle;
+    }
+
+    public int getMaxBits() {
+        return maxBits;
+    }
+
+    public int getFensterBreite() {
+        return fensterBreite;
+    }
+
+    private JacobianPoint[][] baueTabelle(ECPoint basis, FiniteFieldEllipticCurve curve) {
+        int stellen = (maxBits + fensterBreite - 1) / fensterBreite;
+        int eintraege = (1 << fensterBreite) - 1;
+        JacobianPoint[][] t = new JacobianPoint[stellen][eintraege];
+
+        JacobianPoint stellenBasis = JacobianPoint.fromAffine(basis, curve);   // 2^(w·i)·G
+        for (int i = 0; i < stellen; i++) {
+            JacobianPoint vielfaches = stellenBasis.copy();
+            for (int j = 0; j < eintraege; j++) {
+                if (j > 0) {
+                    vielfaches.add(stellenBasis);
+                }
+                t[i][j] = vielfaches.copy();
+            }
+            for (int k = 0; k < fensterBreite; k++) {
+                stellenBasis.twice();
+            }
+        }
+        // affin ablegen (Z = 1), damit die Additionen in multiply gemischt gerechnet werden;
+        // eine gemeinsame Inversion für die ganze Tabelle
+        JacobianPoint[] alle = new JacobianPoint[stellen * eintraege];
+        for (int i = 0; i < stellen; i++) {
+            System.arraycopy(t[i], 0, alle, i * eintraege, eintraege);
+        }
+        JacobianPoint.normalizeAll(alle);
+        return t;
+    }
+
+    /**
+     * k·G über die Tabelle: eine Addition pro Ziffer ungleich 0, keine Verdopplung.
+     */
+    @Override
+    JacobianPoint multiplyJacobian(BigInteger scalar, FiniteFieldEllipticCurve curve) {
+        if (scalar.signum() < 0 || scalar.bitLength() > maxBits || !curve.getP().equals(p)) {
+            return super.multiplyJacobian(scalar, curve);
+        }
+        JacobianPoint result = JacobianPoint.infinity(curve);
+        for (int i = 0; i < tabelle.length; i++) {
+            int ziffer = 0;
+            for (int k = fensterBreite - 1; k >= 0; k--) {
+                ziffer = (ziffer << 1) | (scalar.testBit(i * fensterBreite + k) ? 1 : 0);
+            }
+            if (ziffer != 0) {
+                result.add(tabelle[i][ziffer - 1]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Speichert die Tabelle als Textdatei: Kopfzeile "p,Gx,Gy,maxBits,w", danach ein Punkt "x,y" pro Zeile.
+     */
+    public void save(Path datei) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(datei, StandardCharsets.UTF_8)) {
+            out.write(p + "," + getX() + "," + getY() + "," + maxBits + "," + fensterBreite);
+            out.newLine();
+            for (JacobianPoint[] stelle : tabelle) {
+                for (JacobianPoint punkt : stelle) {
+                    ECPoint affin = punkt.toAffine();
+                    out.write(affin.getX() + "," + affin.getY());
+                    out.newLine();
+                }
+            }
+        }
+    }
+
+    /**
+     * Lädt eine mit save() geschriebene Tabelle. Jeder Eintrag wird beim Laden gegen die Kurve und
+     * die Beziehungen T[i][j] = T[i][j-1] + T[i][0] bzw. T[i+1][0] = T[i][2^w - 2] + T[i][0]
+     * geprüft (siehe pruefeTabelle), da ein einziger falscher Eintrag sonst unbemerkt falsche k·G liefert.
+     * @return die Tabelle, oder null, falls die Datei fehlt, unlesbar oder beschädigt ist oder zu
+     *         einer anderen Kurve, einem anderen Basispunkt oder einer anderen Skalarlänge gehört
+     */
+    public static FixedBasePoint load(Path datei, ECPoint basis, FiniteFieldEllipticCurve curve, int maxBits) {
+        if (!Files.exists(datei)) {
+            return null;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(datei, StandardCharsets.UTF_8)) {
+            String[] kopf = reader.readLine().split(",");
+            if (kopf.length != 5
+                    || !new BigInteger(kopf[0]).equals(curve.getP())
+                    || !new BigInteger(kopf[1]).equals(basis.getX())
+                    || !new BigInteger(kopf[2]).equals(basis.getY())
+                    || Integer.parseInt(kopf[3]) != maxBits) {
+                return null;
+            }
+            int fensterBreite = Integer.parseInt(kopf[4]);
+            if (fensterBreite < 1 || fensterBreite > 8) {
+                return null;
+            }
+            int stellen = (maxBits + fensterBreite - 1) / fensterBreite;
+            ECPoint[][] affin = new ECPoint[stellen][(1 << fensterBreite) - 1];
+            for (ECPoint[] stelle : affin) {
+                for (int j = 0; j < stelle.length; j++) {
+                    String[] teile = reader.readLine().split(",");
+                    stelle[j] = new FiniteFieldECPoint(new BigInteger(teile[0]), new BigInteger(teile[1]));
+                }
+            }
+            if (!pruefeTabelle(affin, basis, curve)) {
+                System.out.println("Generator-Tabelle " + datei + " ist beschädigt und wird verworfen.");
+                return null;
+            }
+            JacobianPoint[][] tabelle = new JacobianPoint[stellen][];
+            for (int i = 0; i < stellen; i++) {
+                tabelle[i] = new JacobianPoint[affin[i].length];
+                for (int j = 0; j < affin[i].length; j++) {
+                    tabelle[i][j] = JacobianPoint.fromAffine(affin[i][j], curve);
+                }
+            }
+            return new FixedBasePoint(basis, curve, maxBits, fensterBreite, tabelle);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Fehler beim Laden der Generator-Tabelle: " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Prüft eine geladene Tabelle vollständig: T[0][0] = G, jeder Eintrag liegt reduziert auf der
+     * Kurve, und jeder weitere Eintrag ist die Summe seines Vorgängers mit dem ersten Eintrag der
+     * Stelle. Da diese Summen jeden Eintrag eindeutig festlegen, stimmt danach die ganze Tabelle.
+     * Die Summen werden ohne Inversion über die Sekanten- bzw. Tangentengleichung geprüft.
+     */
+    private static boolean pruefeTabelle(ECPoint[][] t, ECPoint basis, FiniteFieldEllipticCurve curve) {
+        BigInteger p = curve.getP();
+        if (!t[0][0].getX().equals(basis.getX()) || !t[0][0].getY().equals(basis.getY())) {
+            return false;
+        }
+        for (int i = 0; i < t.length; i++) {
+            for (int j = 0; j < t[i].length; j++) {
+                ECPoint punkt = t[i][j];
+                if (punkt.getX().signum() < 0 || punkt.getX().compareTo(p) >= 0
+                        || punkt.getY().signum() < 0 || punkt.getY().compareTo(p) >= 0
+                        || !curve.isValidPoint(punkt)) {
+                    return false;
+                }
+                if (j > 0 && !istSumme(t[i][j - 1], t[i][0], punkt, p)) {
+                    return false;
+                }
+            }
+            // 2^w·B = (2^w - 1)·B + B ist der erste Eintrag der nächsten Stelle
+            if (i + 1 < t.length && !istSumme(t[i][t[i].length - 1], t[i][0], t[i + 1][0], p)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * r = s + u in affinen Koordinaten, geprüft ohne Inversion: mit der Steigung λ = zaehler/nenner
+     * muss r.x·nenner² = zaehler² - (s.x + u.x)·nenner² und (r.y + s.y)·nenner = zaehler·(s.x - r.x) gelten.
+     */
+    private static boolean istSumme(ECPoint s, ECPoint u, ECPoint r, BigInteger p) {
+        BigInteger zaehler;
+        BigInteger nenner;
+        if (s.getX().equals(u.getX())) {
+            if (!s.getY().equals(u.getY()) || s.getY().signum() == 0) {
+                return false;   // s + u = O kommt in der Tabelle nicht vor
+            }
+            // Tangente für a = -1: λ = (3x² - 1) / (2y)
+            zaehler = s.getX().multiply(s.getX()).multiply(BigInteger.valueOf(3)).subtract(BigInteger.ONE).mod(p);
+            nenner = s.getY().shiftLeft(1).mod(p);
+        } else {
+            zaehler = u.getY().subtract(s.getY()).mod(p);
+            nenner = u.getX().subtract(s.getX()).mod(p);
+        }
+        BigInteger nenner2 = nenner.multiply(nenner).mod(p);
+        BigInteger x = zaehler.multiply(zaehler).subtract(s.getX().add(u.getX()).multiply(nenner2)).mod(p);
+        if (!r.getX().multiply(nenner2).mod(p).equals(x)) {
+            return false;
+        }
+        BigInteger y = zaehler.multiply(s.getX().subtract(r.getX())).mod(p);
+        return r.getY().add(s.getY()).multiply(nenner).mod(p).equals(y);
+    }
+
+    @Override
+    public String toString() {
+        return "FixedBasePoint {x = " + getX() + ", y = " + getY() + ", w = " + fensterBreite + "}";
+    }
+}
@@ -0,0 +1,110 @@
+package org.ellipticCurveFinal;
+
+import java.math.BigInteger;
+
+/**
+ * GLV-Zerlegung für y² = x³ - x über F_p mit p ≡ 1 mod 4.
+ *
+ * Die Abbildung φ(x, y) = (-x, i·y) mit i² ≡ -1 mod p bildet die Kurve auf sich selbst ab
+ * (denn (iy)² = -(x³ - x) = (-x)³ - (-x)) und kostet nur eine Multiplikation. Auf der
+ * Untergruppe der Ordnung q wirkt sie wie die Multiplikation mit einem λ, λ² ≡ -1 mod q.
+ * Jeder Skalar k lässt sich daher als k ≡ k1 + k2·λ mod q mit |k1|, |k2| ≈ √q schreiben,
+ * und k·P = k1·P + k2·φ(P) braucht als Doppel-Skalar-Multiplikation nur halb so viele
+ * Verdopplungen.
+ *
+ * Die Zerlegung benutzt das Gitter {(k1, k2) : k1 + k2·λ ≡ 0 mod q} mit der Basis
+ * v1 = (a, -b), v2 = (b, a), wobei q = a² + b² (SumOfSquares.represent) und λ = a·b^(-1) mod q.
+ *
+ * Achtung: k·P = k1·P + k2·φ(P) gilt nur für Punkte P aus der Untergruppe der Ordnung q.
+ */
+public class GLVEndomorphism {
+
+    private final BigInteger p;
+    private final BigInteger q;
+    private final BigInteger i;        // i² ≡ -1 mod p, passend zu λ gewählt
+    private final BigInteger lambda;   // φ(P) = λ·P auf der Untergruppe
+    private final BigInteger a;        // q = a² + b²
+    private final BigInteger b;
+
+    /**
+     * @param curve     Kurve mit gesetzter Untergruppenordnung q (curve.getQ())
+     * @param generator Punkt der Ordnung q, an dem i und λ aufeinander abgestimmt werden
+     * @throws IllegalArgumentException falls q fehlt, q ≢ 1 mod 4 oder φ(G) ≠ ±λ·G
+     *                                  (dann liegt G nicht in der Untergruppe der Ordnung q)
+     */
+    public GLVEndomorphism(FiniteFieldEllipticCurve curve, ECPoint generator) {
+        this.p = curve.getP();
+        this.q = curve.getQ();
+        if (q == null || !q.mod(BigInteger.valueOf(4)).equals(BigInteger.ONE)) {
+            throw new IllegalArgumentException("GLV benötigt eine Untergruppenordnung q ≡ 1 mod 4.");
+        }
+        FiniteFieldEllipticCurve.SumOfSquares zerlegung = FiniteFieldEllipticCurve.SumOfSquares.represent(q);
+        this.a = zerlegung.x;
+        this.b = zerlegung.y;
+        this.lambda = a.multiply(b.modInverse(q)).mod(q);
+
+        // i und λ müssen zueinander passen: φ(G) = λ·G, sonst gehört -i zu λ
+        BigInteger kandidat = FiniteFieldEllipticCurve.SumOfSquares.findSqrtOfMinusOne(p);
+        ECPoint lambdaG = generator.multiply(lambda, curve);
+        if (lambdaG instanceof InfinitePoint) {
+            throw new IllegalArgumentException("Der Generator liegt nicht in der Untergruppe der Ordnung q.");
+        }
+        ECPoint phiG = anwenden(generator, kandidat);
+        if (!gleich(phiG, lambdaG)) {
+            kandidat = p.subtract(kandidat);
+            phiG = anwenden(generator, kandidat);
+            if (!gleich(phiG, lambdaG)) {
+                throw new IllegalArgumentException("Der Generator liegt nicht in der Untergruppe der Ordnung q.");
+            }
+        }
+        this.i = kandidat;
+    }
+
+    public BigInteger getLambda() {
+        return lambda;
+    }
+
+    public BigInteger getQ() {
+        return q;
+    }
+
+    /**
+     * φ(P) = (-x, i·y)
+     */
+    public ECPoint apply(ECPoint point) {
+        return anwenden(point, i);
+    }
+
+    /**
+     * Zerlegt k in (k1, k2) mit k ≡ k1 + k2·λ mod q und |k1|, |k2| in der Größenordnung √q.
+     * Dazu wird (k, 0) = β1·v1 + β2·v2 über ℚ gelöst, β1 = k·a/q, β2 = k·b/q, und
+     * (k1, k2) = (k, 0) - round(β1)·v1 - round(β2)·v2 gesetzt.
+     */
+    public BigInteger[] decompose(BigInteger k) {
+        k = k.mod(q);
+        BigInteger c1 = gerundet(k.multiply(a));
+        BigInteger c2 = gerundet(k.multiply(b));
+        BigInteger k1 = k.subtract(c1.multiply(a)).subtract(c2.multiply(b));
+        BigInteger k2 = c1.multiply(b).subtract(c2.multiply(a));
+        return new BigInteger[]{k1, k2};
+    }
+
+    /** round(n / q) für n ≥ 0 */
+    private BigInteger gerundet(BigInteger n) {
+        return n.shiftLeft(1).add(q).divide(q.shiftLeft(1));
+    }
+
+    private ECPoint anwenden(ECPoint point, BigInteger wurzel) {
+        if (point instanceof InfinitePoint) {
+            return point;
+        }
+        return new FiniteFieldECPoint(point.getX().negate().mod(p), point.getY().multiply(wurzel).mod(p));
+    }
+
+    private static boolean gleich(ECPoint u, ECPoint v) {
+        if (u instanceof InfinitePoint || v instanceof InfinitePoint) {
+            return u instanceof InfinitePoint && v instanceof InfinitePoint;
+        }
+        return u.getX().equals(v.getX()) && u.getY().equals(v.getY());
+    }
+}
@@ -0,0 +1,290 @@
+package org.ellipticCurveFinal;
+
+import org.scrum1_3.MontgomeryKontext;
+import org.scrum1_4.simultaneInversion;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Punkt in Jacobi-Koordinaten (X : Y : Z) auf y² = x³ - x, d.h. x = X/Z², y = Y/Z³.
+ * Addition und Verdopplung kommen ohne modulare Inversion aus; erst toAffine() rechnet
+ * einmal Z^(-1) aus. Der Punkt Z = 0 ist der Unendlichkeitspunkt.
+ *
+ * Die Koordinaten liegen als long[]-Limbs in Montgomery-Form vor (MontgomeryKontext der Kurve)
+ * und werden in-place verändert; Zwischenwerte landen in Puffern, die jeder Punkt beim ersten
+ * twice/add einmal anlegt. Eine Skalar-Multiplikation alloziert damit in der Hauptschleife
+ * nichts mehr. Die Punkte sind veränderlich (twice, add und negate) und nicht thread-safe;
+ * als Operand "other" von add werden sie nur gelesen.
+ */
+public final class JacobianPoint {
+
+    private final MontgomeryKontext feld;
+    private final long[] x;
+    private final long[] y;
+    private final long[] z;
+    private long[][] puffer;    // t0..t7 und der Puffer der Montgomery-Multiplikation
+
+    private JacobianPoint(MontgomeryKontext feld, long[] x, long[] y, long[] z) {
+        this.feld = feld;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * Wandelt einen affinen Punkt (bzw. den Unendlichkeitspunkt) in Jacobi-Koordinaten mit Z = 1 um.
+     */
+    public static JacobianPoint fromAffine(ECPoint point, FiniteFieldEllipticCurve curve) {
+        if (point instanceof InfinitePoint) {
+            return infinity(curve);
+        }
+        MontgomeryKontext feld = curve.getFeld();
+        long[] t = feld.neuerPuffer();
+        return new JacobianPoint(feld,
+                feld.inMontgomeryForm(point.getX(), t),
+                feld.inMontgomeryForm(point.getY(), t),
+                feld.einsInMontgomeryForm());
+    }
+
+    /**
+     * Der Unendlichkeitspunkt (1 : 1 : 0).
+     */
+    public static JacobianPoint infinity(FiniteFieldEllipticCurve curve) {
+        MontgomeryKontext feld = curve.getFeld();
+        return new JacobianPoint(feld, feld.einsInMontgomeryForm(), feld.einsInMontgomeryForm(),
+                new long[feld.getLaenge()]);
+    }
+
+    public JacobianPoint copy() {
+        return new JacobianPoint(feld, x.clone(), y.clone(), z.clone());
+    }
+
+    /**
+     * Übernimmt die Koordinaten eines anderen Punktes.
+     */
+    public void set(JacobianPoint other) {
+        System.arraycopy(other.x, 0, x, 0, x.length);
+        System.arraycopy(other.y, 0, y, 0, y.length);
+        System.arraycopy(other.z, 0, z, 0, z.length);
+    }
+
+    public boolean isInfinity() {
+        return feld.istNull(z);
+    }
+
+    /**
+     * this = 2·this
+     * S = 4XY², M = 3X² + aZ⁴ (hier a = -1), X' = M² - 2S, Y' = M(S - X') - 8Y⁴, Z' = 2YZ
+     */
+    public void twice() {
+        if (isInfinity()) {
+            return;
+        }
+        if (feld.istNull(y)) {
+            // Punkt der Ordnung 2, z.B. (0,0)
+            setInfinity();
+            return;
+        }
+        long[][] p = puffer();
+        long[] xx = p[0], yy = p[1], zz = p[2], s = p[3], m = p[4], t = p[5], mp = p[8];
+
+        feld.montgomeryMultiplikation(x, x, xx, mp);
+        feld.montgomeryMultiplikation(y, y, yy, mp);
+        feld.montgomeryMultiplikation(z, z, zz, mp);
+        // Z' = 2YZ (Y und Z werden danach nur noch über yy und zz gebraucht)
+        feld.montgomeryMultiplikation(y, z, z, mp);
+        feld.modAddition(z, z, z);
+        // S = 4XY²
+        feld.montgomeryMultiplikation(x, yy, s, mp);
+        feld.modAddition(s, s, s);
+        feld.modAddition(s, s, s);
+        // M = 3X² - Z⁴
+        feld.montgomeryMultiplikation(zz, zz, m, mp);
+        feld.modAddition(xx, xx, t);
+        feld.modAddition(t, xx, t);
+        feld.modSubtraktion(t, m, m);
+        // X' = M² - 2S
+        feld.montgomeryMultiplikation(m, m, x, mp);
+        feld.modSubtraktion(x, s, x);
+        feld.modSubtraktion(x, s, x);
+        // Y' = M(S - X') - 8Y⁴
+        feld.montgomeryMultiplikation(yy, yy, yy, mp);
+        feld.modAddition(yy, yy, yy);
+        feld.modAddition(yy, yy, yy);
+        feld.modAddition(yy, yy, yy);
+        feld.modSubtraktion(s, x, t);
+        feld.montgomeryMultiplikation(m, t, y, mp);
+        feld.modSubtraktion(y, yy, y);
+    }
+
+    /**
+     * this = this + other
+     * U1 = X1·Z2², U2 = X2·Z1², S1 = Y1·Z2³, S2 = Y2·Z1³, H = U2 - U1, r = S2 - S1,
+     * X' = r² - H³ - 2·U1·H², Y' = r(U1·H² - X') - S1·H³, Z' = Z1·Z2·H.
+     * Ist other affin (Z2 = 1), entfallen die Multiplikationen mit Z2.
+     */
+    public void add(JacobianPoint other) {
+        if (other.isInfinity()) {
+            return;
+        }
+        if (isInfinity()) {
+            set(other);
+            return;
+        }
+        long[][] p = puffer();
+        long[] t0 = p[0], t1 = p[1], t2 = p[2], t3 = p[3], t4 = p[4], t5 = p[5], t6 = p[6], t7 = p[7], mp = p[8];
+
+        boolean otherAffin = feld.istEins(other.z);
+        feld.montgomeryMultiplikation(z, z, t0, mp);                 // Z1²
+        long[] u1 = x;
+        long[] s1 = y;
+        if (!otherAffin) {
+            feld.montgomeryMultiplikation(other.z, other.z, t1, mp); // Z2²
+            feld.montgomeryMultiplikation(x, t1, t2, mp);            // U1
+            feld.montgomeryMultiplikation(y, other.z, t3, mp);
+            feld.montgomeryMultiplikation(t3, t1, t3, mp);           // S1
+            u1 = t2;
+            s1 = t3;
+        }
+        feld.montgomeryMultiplikation(other.x, t0, t4, mp);          // U2
+        feld.montgomeryMultiplikation(z, t0, t5, mp);
+        feld.montgomeryMultiplikation(other.y, t5, t5, mp);          // S2
+
+        feld.modSubtraktion(t4, u1, t4);                             // H
+        feld.modSubtraktion(t5, s1, t5);                             // r
+        if (feld.istNull(t4)) {
+            if (feld.istNull(t5)) {
+                twice();          // gleiche Punkte
+            } else {
+                setInfinity();    // P + (-P)
+            }
+            return;
+        }
+        feld.montgomeryMultiplikation(t4, t4, t6, mp);               // H²
+        feld.montgomeryMultiplikation(t6, t4, t7, mp);               // H³
+        feld.montgomeryMultiplikation(u1, t6, t6, mp);               // V = U1·H²
+
+        // Z' = Z1·Z2·H
+        if (!otherAffin) {
+            feld.montgomeryMultiplikation(z, other.z, z, mp);
+        }
+        feld.montgomeryMultiplikation(z, t4, z, mp);
+        // X' = r² - H³ - 2V
+        feld.montgomeryMultiplikation(t5, t5, t0, mp);
+        feld.modSubtraktion(t0, t7, t0);
+        feld.modSubtraktion(t0, t6, t0);
+        feld.modSubtraktion(t0, t6, t0);
+        // Y' = r(V - X') - S1·H³ (S1 kann noch auf Y zeigen, daher zuerst lesen)
+        feld.modSubtraktion(t6, t0, t6);
+        feld.montgomeryMultiplikation(t5, t6, t6, mp);
+        feld.montgomeryMultiplikation(s1, t7, t7, mp);
+        feld.modSubtraktion(t6, t7, y);
+        System.arraycopy(t0, 0, x, 0, x.length);
+    }
+
+    /**
+     * this = -this, also (X : -Y : Z)
+     */
+    public void negate() {
+        feld.modSubtraktion(new long[y.length], y, y);
+    }
+
+    /**
+     * Rechnet mit einer einzigen Inversion in affine Koordinaten zurück (ohne Inversion, falls Z = 1).
+     */
+    public ECPoint toAffine() {
+        if (isInfinity()) {
+            return InfinitePoint.getInstance();
+        }
+        long[] t = feld.neuerPuffer();
+        if (feld.istEins(z)) {
+            return new FiniteFieldECPoint(feld.ausMontgomeryForm(x, t), feld.ausMontgomeryForm(y, t));
+        }
+        BigInteger p = feld.getModulus();
+        BigInteger zInv = feld.ausMontgomeryForm(z, t).modInverse(p);
+        BigInteger zInv2 = zInv.multiply(zInv).mod(p);
+        BigInteger affinX = feld.ausMontgomeryForm(x, t).multiply(zInv2).mod(p);
+        BigInteger affinY = feld.ausMontgomeryForm(y, t).multiply(zInv2).multiply(zInv).mod(p);
+        return new FiniteFieldECPoint(affinX, affinY);
+    }
+
+    /**
+     * Bringt alle Punkte in-place auf Z = 1, mit einer einzigen Inversion für alle zusammen
+     * (simultaneInversion). Unendlichkeitspunkte und Punkte mit Z = 1 bleiben unverändert.
+     * Alle Punkte müssen zur selben Kurve gehören.
+     */
+    public static void normalizeAll(JacobianPoint[] punkte) {
+        int anzahl = 0;
+        for (JacobianPoint punkt : punkte) {
+            if (!punkt.isInfinity() && !punkt.feld.istEins(punkt.z)) {
+                anzahl++;
+            }
+        }
+        if (anzahl == 0) {
+            return;
+        }
+        JacobianPoint[] offen = new JacobianPoint[anzahl];
+        long[][] zWerte = new long[anzahl][];
+        int i = 0;
+        for (JacobianPoint punkt : punkte) {
+            if (!punkt.isInfinity() && !punkt.feld.istEins(punkt.z)) {
+                offen[i] = punkt;
+                zWerte[i] = punkt.z.clone();
+                i++;
+            }
+        }
+        MontgomeryKontext feld = offen[0].feld;
+        simultaneInversion.invertiere(zWerte, feld);
+
+        long[] zInv2 = new long[feld.getLaenge()];
+        long[] mp = feld.neuerPuffer();
+        for (i = 0; i < anzahl; i++) {
+            JacobianPoint punkt = offen[i];
+            long[] zInv = zWerte[i];
+            feld.montgomeryMultiplikation(zInv, zInv, zInv2, mp);
+            feld.montgomeryMultiplikation(punkt.x, zInv2, punkt.x, mp);
+            feld.montgomeryMultiplikation(punkt.y, zInv2, punkt.y, mp);
+            feld.montgomeryMultiplikation(punkt.y, zInv, punkt.y, mp);
+            System.arraycopy(feld.einsInMontgomeryForm(), 0, punkt.z, 0, punkt.z.length);
+        }
+    }
+
+    /**
+     * toAffine für viele Punkte mit einer einzigen Inversion. Die Punkte selbst werden dabei
+     * auf Z = 1 gebracht (normalizeAll), stellen aber weiterhin denselben Punkt dar.
+     */
+    public static ECPoint[] toAffineAll(JacobianPoint[] punkte) {
+        normalizeAll(punkte);
+        ECPoint[] ergebnis = new ECPoint[punkte.length];
+        for (int i = 0; i < punkte.length; i++) {
+            ergebnis[i] = punkte[i].toAffine();
+        }
+        return ergebnis;
+    }
+
+    private long[][] puffer() {
+        if (puffer == null) {
+            puffer = new long[9][];
+            for (int i = 0; i < 8; i++) {
+                puffer[i] = new long[x.length];
+            }
+            puffer[8] = feld.neuerPuffer();
+        }
+        return puffer;
+    }
+
+    private void setInfinity() {
+        long[] eins = feld.einsInMontgomeryForm();
+        System.arraycopy(eins, 0, x, 0, x.length);
+        System.arraycopy(eins, 0, y, 0, y.length);
+        Arrays.fill(z, 0);
+    }
+
+    @Override
+    public String toString() {
+        long[] t = feld.neuerPuffer();
+        return "JacobianPoint {X = " + feld.ausMontgomeryForm(x, t) + ", Y = " + feld.ausMontgomeryForm(y, t)
+                + ", Z = " + feld.ausMontgomeryForm(z, t) + "}";
+    }
+}
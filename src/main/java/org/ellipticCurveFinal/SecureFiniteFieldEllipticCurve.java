@@ -1,6 +1,7 @@
 package org.ellipticCurveFinal;
 
-import org.scrum1_3.schnelleExponentiation;
+import org.scrum1_2.MillerRabinKontext;
+import org.scrum1_2.PrimTester;
 
 import java.math.BigInteger;
 import java.security.SecureRandom;
@@ -61,7 +62,7 @@ public class SecureFiniteFieldEllipticCurve {
     /**
      * Erzeugt eine Primzahl p mit gegebener Bitlänge,
      * so dass p ≡ 5 mod 8 gilt,
-     * indem zufällige Kandidaten per Miller–Rabin geprüft werden.
+     * indem zufällige Kandidaten ohne kleine Primfaktoren per Miller–Rabin geprüft werden.
      *
      * @param bitLength Bitlänge von p
      * @param mrRounds  Anzahl der Miller–Rabin-Runden
@@ -89,7 +90,10 @@ public class SecureFiniteFieldEllipticCurve {
                 continue;
             }
 
-            // Miller–Rabin-Prüfung
+            // Vorfilter (kleine Primfaktoren), danach Miller–Rabin-Prüfung
+            if (PrimTester.hatKleinenTeiler(p)) {
+                continue;
+            }
             if (isProbablePrimeMR(p, mrRounds, rnd)) {
                 return p;
             }
@@ -98,7 +102,7 @@ public class SecureFiniteFieldEllipticCurve {
 
     /**
      * Miller–Rabin-Test: prüft, ob n vermutlich prim ist.
-     * Verwendet die schnelleExponentiation für a^d mod n.
+     * Die Zeugen laufen über den gemeinsamen MillerRabinKontext (Zerlegung von n - 1 einmal pro n).
      *
      * @param n          Ungerade Zahl > 2
      * @param iterations Anzahl der Test-Runden
@@ -110,39 +114,7 @@ public class SecureFiniteFieldEllipticCurve {
         if (n.equals(BigInteger.TWO) || n.equals(BigInteger.valueOf(3))) return true;
         if (n.mod(BigInteger.TWO).equals(BigInteger.ZERO)) return false;
 
-        // Schreibe n-1 = 2^s * d mit d ungerade
-        BigInteger d = n.subtract(BigInteger.ONE);
-        // Gibt den Faktor wieder, da die Anzahl der Nullen am Ende gezählt werden
-        int s = d.getLowestSetBit();
-        // Der Rest ist dann d
-        d = d.shiftRight(s);
-
-        for (int i = 0; i < iterations; i++) {
-            // Zufällige Basis a ∈ [2, n-2]
-            BigInteger a;
-            do {
-                a = new BigInteger(n.bitLength(), rnd);
-            } while (a.compareTo(BigInteger.TWO) < 0 || a.compareTo(n.subtract(BigInteger.TWO)) > 0);
-
-            // Erstes a^d mod n
-            BigInteger x = schnelleExponentiation.schnelleExponentiation(a, d, n);
-            if (x.equals(BigInteger.ONE) || x.equals(n.subtract(BigInteger.ONE))) {
-                continue;
-            }
-            boolean passed = false;
-            for (int r = 1; r < s; r++) {
-                // Quadrieren: x = x^2 mod n
-                x = schnelleExponentiation.schnelleExponentiation(x, BigInteger.TWO, n);
-                if (x.equals(n.subtract(BigInteger.ONE))) {
-                    passed = true;
-                    break;
-                }
-            }
-            if (!passed) {
-                return false; // n ist zusammengesetzt
-            }
-        }
-        return true; // vermutlich prim
+        return new MillerRabinKontext(n).teste(iterations, rnd);
     }
 
 }
\ No newline at end of file
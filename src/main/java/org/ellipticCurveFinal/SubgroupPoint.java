@@ -0,0 +1,37 @@
+package org.ellipticCurveFinal;
+
+import java.math.BigInteger;
+
+/**
+ * Punkt, von dem feststeht, dass er in der Untergruppe der Ordnung q liegt, z.B. der eigene
+ * öffentliche Schlüssel x·G oder 8·A bei der Hybrid-Entschlüsselung.
+ *
+ * Nur für solche Punkte nutzt die Skalar-Multiplikation die GLV-Zerlegung der Kurve
+ * (siehe GLVEndomorphism), denn k·P = k1·P + k2·φ(P) gilt außerhalb der Untergruppe nicht.
+ * Punkte von außen werden über FiniteFieldEllipticCurve.validateSubgroupPoint geprüft und
+ * dabei in einen SubgroupPoint umgewandelt; alle anderen Punkte werden ohne GLV multipliziert.
+ */
+public class SubgroupPoint extends FiniteFieldECPoint {
+
+    /**
+     * Ungeprüft: der Aufrufer garantiert, dass (x, y) ein Vielfaches eines Punktes der Ordnung q ist.
+     */
+    SubgroupPoint(BigInteger x, BigInteger y) {
+        super(x, y);
+    }
+
+    /**
+     * Ungeprüft wie der Konstruktor; der Unendlichkeitspunkt bleibt unverändert.
+     */
+    static ECPoint of(ECPoint point) {
+        if (point instanceof InfinitePoint || point instanceof SubgroupPoint) {
+            return point;
+        }
+        return new SubgroupPoint(point.getX(), point.getY());
+    }
+
+    @Override
+    public String toString() {
+        return "SubgroupPoint {x = " + getX() + ", y = " + getY() + "}";
+    }
+}
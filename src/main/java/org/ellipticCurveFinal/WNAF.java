@@ -0,0 +1,76 @@
+package org.ellipticCurveFinal;
+
+import java.math.BigInteger;
+
+/**
+ * Umkodierung eines Skalars in die Non-Adjacent-Form der Breite w (wNAF).
+ *
+ * k = Σ d_i·2^i mit d_i = 0 oder ungerade und |d_i| < 2^(w-1); unter je w aufeinanderfolgenden
+ * Ziffern ist höchstens eine ungleich 0. Bei der Skalar-Multiplikation braucht man dafür nur
+ * die ungeraden Vielfachen P, 3P, ..., (2^(w-1) - 1)·P, da -P auf der Kurve kostenlos ist
+ * (y ↦ -y), und kommt im Mittel mit n/(w+1) statt n/2 Additionen aus.
+ */
+public final class WNAF {
+
+    private WNAF() { }
+
+    /**
+     * @param k Skalar (beliebiges Vorzeichen; bei k < 0 werden alle Ziffern negiert)
+     * @param w Breite 2 bis 16
+     * @return Ziffern d_0, d_1, ... (niederwertigste zuerst), Länge höchstens bitLength(k) + 1
+     */
+    public static int[] recode(BigInteger k, int w) {
+        if (w < 2 || w > 16) {
+            throw new IllegalArgumentException("Die wNAF-Breite muss zwischen 2 und 16 liegen.");
+        }
+        int vorzeichen = k.signum();
+        k = k.abs();
+        int bits = k.bitLength();
+        int[] ziffern = new int[bits + 1];
+        int modul = 1 << w;
+        int haelfte = 1 << (w - 1);
+        int laenge = 0;
+        // Bits von unten lesen; carry = 1 bedeutet, dass an der aktuellen Stelle noch 1 dazukommt
+        // (entsteht, wenn eine negative Ziffer gewählt wurde)
+        int carry = 0;
+        int i = 0;
+        while (i < bits || carry != 0) {
+            int b = (k.testBit(i) ? 1 : 0) + carry;
+            if (b != 1) {
+                // gerade (0 oder 2): Ziffer 0, ein Übertrag von 2 wandert eine Stelle weiter
+                carry = b >>> 1;
+                i++;
+                continue;
+            }
+            // ungerade: Fenster der nächsten w Bits, d = Fenster mods 2^w
+            int fenster = carry;
+            for (int j = 0; j < w; j++) {
+                if (k.testBit(i + j)) {
+                    fenster += 1 << j;
+                }
+            }
+            int d = fenster;
+            carry = 0;
+            if (d >= haelfte) {
+                d -= modul;
+                carry = 1;
+            }
+            ziffern[i] = vorzeichen * d;
+            laenge = i + 1;
+            i += w;   // die folgenden w - 1 Ziffern sind 0
+        }
+        int[] ergebnis = new int[laenge];
+        System.arraycopy(ziffern, 0, ergebnis, 0, laenge);
+        return ergebnis;
+    }
+
+    /**
+     * Breite, bei der Tabellenaufbau (2^(w-2) Punkte) und eingesparte Additionen im Gleichgewicht sind.
+     */
+    public static int standardWidth(int bits) {
+        if (bits < 80) return 3;
+        if (bits < 300) return 4;
+        if (bits < 1000) return 5;
+        return 6;
+    }
+}
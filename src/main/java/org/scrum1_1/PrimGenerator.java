@@ -1,19 +1,132 @@
 package org.scrum1_1;
 import java.math.*;
 import java.security.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 
 import static org.scrum1_2.PrimTester.istPrimzahl;
+import static org.scrum1_2.PrimTester.istPrimzahl64;
 
 public class PrimGenerator {
     private static final SecureRandom random = new SecureRandom();
+
+    /** Obergrenze der Siebprimzahlen (3511 ungerade Primzahlen unter 2^15). */
+    private static final int SIEB_GRENZE = 1 << 15;
+    /** Anzahl ungerader Kandidaten pro Siebfenster. */
+    private static final int FENSTER = 4096;
+    private static final int[] SIEB_PRIMZAHLEN = kleinePrimzahlen(SIEB_GRENZE);
+
     /**
      * Generiert eine zufällige Primzahl im Bereich [a, b] unter Verwendung des Miller-Rabin-Tests.
+     *
+     * Inkrementelle Suche: Ab einem zufälligen ungeraden Startwert werden jeweils FENSTER
+     * aufeinanderfolgende ungerade Kandidaten gegen die kleinen Primzahlen bis 2^15 gesiebt.
+     * Die Reste des Startwerts modulo dieser Primzahlen werden einmal berechnet und von Fenster zu
+     * Fenster nur noch fortgeschrieben. Miller-Rabin (mit voller Iterationszahl) läuft nur auf den
+     * etwa 10 % der Kandidaten, die das Sieb übrig lässt. Läuft die Suche über b hinaus, beginnt sie
+     * an einem neuen zufälligen Startwert.
+     *
      * @param a Untere Schranke (inklusive)
      * @param b Obere Schranke (inklusive)
      * @param mrIterations Anzahl der Miller-Rabin-Iterationen
      * @return Eine zufällige Primzahl im gegebenen Bereich
      */
     public static BigInteger generateRandomPrime(BigInteger a, BigInteger b, int mrIterations) {
+        int anzahlSiebPrimzahlen = pruefeGrenzen(a, b);
+        AtomicBoolean keinAbbruch = new AtomicBoolean(false);
+        while (true) {
+            BigInteger start = getRandomBigInteger(a, b);         // erzeugt zufällige ungerade Zahl
+            BigInteger primzahl = sucheAb(start, b, mrIterations, anzahlSiebPrimzahlen, keinAbbruch);
+            if (primzahl != null) {
+                return primzahl;
+            }
+        }
+    }
+
+    /**
+     * Wie generateRandomPrime, die Suche läuft aber auf dem Executor (null = sequentiell).
+     */
+    public static BigInteger generateRandomPrime(BigInteger a, BigInteger b, int mrIterations, ExecutorService executor) {
+        return generateRandomPrimes(a, b, mrIterations, 1, executor)[0];
+    }
+
+    /**
+     * Erzeugt anzahl verschiedene zufällige Primzahlen in [a, b], z.B. p und q für RSA.
+     *
+     * Mit Executor suchen so viele Worker, wie Prozessoren vorhanden sind, jeweils ab eigenen
+     * zufälligen Startwerten. Jeder gefundene Kandidat wird in eine gemeinsame Menge eingetragen;
+     * sobald sie voll ist, wird ein gemeinsames Abbruch-Flag gesetzt, das alle Worker zwischen
+     * zwei Miller-Rabin-Tests prüfen. Die Suche nach p und q teilt sich damit alle Kerne, statt
+     * nacheinander auf einem zu laufen. Der Executor wird nicht heruntergefahren.
+     * Der Bereich muss mindestens anzahl Primzahlen enthalten, sonst terminiert die Suche nicht.
+     *
+     * @return die Primzahlen in der Reihenfolge, in der sie gefunden wurden
+     */
+    public static BigInteger[] generateRandomPrimes(BigInteger a, BigInteger b, int mrIterations, int anzahl,
+                                                    ExecutorService executor) {
+        int anzahlSiebPrimzahlen = pruefeGrenzen(a, b);
+        if (anzahl < 1) {
+            throw new IllegalArgumentException("Es muss mindestens eine Primzahl erzeugt werden.");
+        }
+        Set<BigInteger> gefunden = new LinkedHashSet<>();
+        AtomicBoolean fertig = new AtomicBoolean(false);
+        Callable<Void> worker = () -> {
+            while (!fertig.get()) {
+                BigInteger primzahl = sucheAb(getRandomBigInteger(a, b), b, mrIterations, anzahlSiebPrimzahlen, fertig);
+                if (primzahl != null) {
+                    synchronized (gefunden) {
+                        if (gefunden.size() < anzahl) {
+                            gefunden.add(primzahl);
+                        }
+                        if (gefunden.size() == anzahl) {
+                            fertig.set(true);
+                        }
+                    }
+                }
+            }
+            return null;
+        };
+
+        if (executor == null) {
+            try {
+                worker.call();
+            } catch (Exception e) {
+                throw new IllegalStateException("Fehler bei der Primzahlsuche", e);
+            }
+        } else {
+            int anzahlWorker = Runtime.getRuntime().availableProcessors();
+            List<Callable<Void>> aufgaben = new ArrayList<>(anzahlWorker);
+            for (int i = 0; i < anzahlWorker; i++) {
+                aufgaben.add(worker);
+            }
+            try {
+                for (Future<Void> future : executor.invokeAll(aufgaben)) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                fertig.set(true);
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Primzahlsuche wurde unterbrochen", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Fehler bei der Primzahlsuche", e.getCause());
+            }
+        }
+        return gefunden.toArray(new BigInteger[0]);
+    }
+
+    /**
+     * Prüft die Schranken und liefert die Anzahl der Siebprimzahlen, die für [a, b] verwendet werden dürfen.
+     */
+    private static int pruefeGrenzen(BigInteger a, BigInteger b) {
         // Kontrolle, dass a ≤ b
         if (a.compareTo(b) > 0) {
             throw new IllegalArgumentException("Die untere Schranke muss kleiner als die obere Schranke sein.");
@@ -22,21 +135,136 @@ public class PrimGenerator {
         if (a.compareTo(BigInteger.ZERO) < 0) {
             throw new IllegalArgumentException("Die untere Schranke muss größer oder gleich 0 sein.");
         }
+        return anzahlSiebPrimzahlen(a);
+    }
 
-        long startTime = System.currentTimeMillis();  // Zeitmessung starten
-        BigInteger primeCandidate;
-        int attempts = 0;
-        while (true) {
-            attempts++;
-            primeCandidate = getRandomBigInteger(a, b);         // erzeugt zufällige ungerade Zahl
-            if (istPrimzahl(primeCandidate, mrIterations)) {    // prüft, ob diese Zahl eine Primzahl ist
-                long duration = System.currentTimeMillis() - startTime;
-                System.out.println("Primzahl gefunden: " + primeCandidate);
-                System.out.println("Anzahl Versuche: " + attempts);
-                System.out.println("Benötigte Zeit: " + duration + " ms");
-                return primeCandidate;
+    /**
+     * Anzahl der Siebprimzahlen kleiner als a. Nur mit diesen darf siebSuche ab a sieben: dann ist
+     * jeder durch eine Siebprimzahl teilbare Kandidat ≥ a zusammengesetzt.
+     */
+    public static int anzahlSiebPrimzahlen(BigInteger a) {
+        if (a.compareTo(BigInteger.valueOf(SIEB_GRENZE)) >= 0) {
+            return SIEB_PRIMZAHLEN.length;
+        }
+        int grenze = a.intValue();
+        int anzahl = 0;
+        while (anzahl < SIEB_PRIMZAHLEN.length && SIEB_PRIMZAHLEN[anzahl] < grenze) {
+            anzahl++;
+        }
+        return anzahl;
+    }
+
+    /**
+     * Sucht die erste (wahrscheinliche) Primzahl in start, start + 2, ... ≤ b.
+     * @return die Primzahl oder null, falls bis b keine gefunden wurde oder abgebrochen wurde
+     */
+    private static BigInteger sucheAb(BigInteger start, BigInteger b, int mrIterations, int anzahlSiebPrimzahlen,
+                                      AtomicBoolean abbruch) {
+        if (b.bitLength() < 64) {
+            return sucheAb64(start.longValue(), b.longValue(), abbruch);
+        }
+        return siebSuche(start, b, anzahlSiebPrimzahlen, false, abbruch,
+                kandidat -> istPrimzahl(kandidat, mrIterations) ? kandidat : null);
+    }
+
+    /**
+     * Fenstersieb über die ungeraden Kandidaten x = start, start + 2, ... ≤ b: pro Fenster werden
+     * FENSTER Kandidaten gegen die ersten anzahlSiebPrimzahlen Siebprimzahlen s gesiebt, die Reste
+     * von start modulo s einmal berechnet und von Fenster zu Fenster nur fortgeschrieben.
+     *
+     * @param start ungerader Startwert
+     * @param anzahlSiebPrimzahlen siehe anzahlSiebPrimzahlen(BigInteger)
+     * @param auchZweiXPlusEins streicht zusätzlich alle x mit s | 2x + 1 (für sichere Primzahlen 2q + 1)
+     * @param abbruch wird vor jedem Test geprüft
+     * @param test bekommt die Überlebenden der Reihe nach; das erste Ergebnis ungleich null beendet die Suche
+     * @return das Ergebnis von test oder null, falls bis b nichts gefunden oder abgebrochen wurde
+     */
+    public static BigInteger siebSuche(BigInteger start, BigInteger b, int anzahlSiebPrimzahlen,
+                                       boolean auchZweiXPlusEins, AtomicBoolean abbruch,
+                                       Function<BigInteger, BigInteger> test) {
+        int[] reste = new int[anzahlSiebPrimzahlen];
+        for (int i = 0; i < anzahlSiebPrimzahlen; i++) {
+            reste[i] = start.mod(BigInteger.valueOf(SIEB_PRIMZAHLEN[i])).intValue();
+        }
+        boolean[] gestrichen = new boolean[FENSTER];
+        BigInteger basis = start;
+        while (basis.compareTo(b) <= 0) {
+            // Kandidat j ist basis + 2j; durch s teilbar, sobald rest + 2j ≡ 0 (mod s),
+            // 2x + 1 durch s teilbar, sobald rest + 2j ≡ (s - 1)/2 (mod s)
+            Arrays.fill(gestrichen, false);
+            for (int i = 0; i < anzahlSiebPrimzahlen; i++) {
+                int s = SIEB_PRIMZAHLEN[i];
+                long halbesInverses = (s + 1) >>> 1;                 // 2^(-1) mod s
+                streiche(gestrichen, (int) ((s - reste[i]) % s * halbesInverses % s), s);
+                if (auchZweiXPlusEins) {
+                    int ziel = (s - 1) >>> 1;
+                    streiche(gestrichen, (int) ((ziel - reste[i] + s) % s * halbesInverses % s), s);
+                }
+            }
+            for (int j = 0; j < FENSTER; j++) {
+                if (gestrichen[j]) {
+                    continue;
+                }
+                if (abbruch.get()) {
+                    return null;
+                }
+                BigInteger kandidat = basis.add(BigInteger.valueOf(2L * j));
+                if (kandidat.compareTo(b) > 0) {
+                    return null;
+                }
+                BigInteger ergebnis = test.apply(kandidat);
+                if (ergebnis != null) {
+                    return ergebnis;
+                }
+            }
+            // nächstes Fenster: Reste fortschreiben statt neu zu dividieren
+            basis = basis.add(BigInteger.valueOf(2L * FENSTER));
+            for (int i = 0; i < anzahlSiebPrimzahlen; i++) {
+                reste[i] = (reste[i] + 2 * FENSTER) % SIEB_PRIMZAHLEN[i];
+            }
+        }
+        return null;
+    }
+
+    private static void streiche(boolean[] gestrichen, int erstes, int schritt) {
+        for (int j = erstes; j < gestrichen.length; j += schritt) {
+            gestrichen[j] = true;
+        }
+    }
+
+    /**
+     * sucheAb für b < 2^63 ganz auf long: der exakte 64-Bit-Test ist billiger als das Sieb samt
+     * BigInteger-Resten, Miller-Rabin-Iterationen spielen hier keine Rolle.
+     */
+    private static BigInteger sucheAb64(long start, long b, AtomicBoolean abbruch) {
+        for (long kandidat = start; kandidat <= b && !abbruch.get(); kandidat += 2) {
+            if (istPrimzahl64(kandidat)) {
+                return BigInteger.valueOf(kandidat);
+            }
+            if (kandidat > b - 2) {
+                break; // kein Überlauf bei b nahe Long.MAX_VALUE
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Ungerade Primzahlen kleiner als grenze (Sieb des Eratosthenes).
+     */
+    public static int[] kleinePrimzahlen(int grenze) {
+        boolean[] zusammengesetzt = new boolean[grenze];
+        int[] primzahlen = new int[grenze];
+        int anzahl = 0;
+        for (int i = 3; i < grenze; i += 2) {
+            if (zusammengesetzt[i]) {
+                continue;
+            }
+            primzahlen[anzahl++] = i;
+            for (long k = (long) i * i; k < grenze; k += 2L * i) {
+                zusammengesetzt[(int) k] = true;
             }
         }
+        return Arrays.copyOf(primzahlen, anzahl);
     }
 
 
@@ -57,7 +285,9 @@ public class PrimGenerator {
         BigInteger upperBound = new BigInteger("300000"); // Obere Grenze der Range
         int mrIterations = 20;  // Anzahl der Iterationen für den Miller-Rabin-Test
 
+        long startTime = System.currentTimeMillis();
         BigInteger prime = generateRandomPrime(lowerBound, upperBound, mrIterations);
         System.out.println("Generierte Primzahl: " + prime);
+        System.out.println("Benötigte Zeit: " + (System.currentTimeMillis() - startTime) + " ms");
     }
 }
@@ -0,0 +1,247 @@
+package org.scrum1_1;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Vorrat an vorab erzeugten Primzahl-Tupeln, z.B. (p, q) für RSA-1024/2048/3404 oder
+ * (p, q = N/8) als EC-Domain-Parameter, damit die Schlüsselerzeugung nicht auf die Suche warten muss.
+ *
+ * Jede Art (z.B. "rsa-2048", "ecc-256") wird mit einer Zielgröße und einem Erzeuger registriert;
+ * der Pool selbst kennt weder RSA noch Kurven, die Aufrufer bringen ihre Erzeuger mit.
+ * Ein Hintergrund-Thread mit niedriger Priorität füllt alle Arten bis zur Zielgröße auf.
+ * entnehmen liefert in O(1) ein Tupel oder null, wenn die Art gerade leer ist; der Aufrufer
+ * erzeugt dann selbst. Nach jeder Änderung wird der Pool in eine Datei geschrieben
+ * (eine Zeile "art,wert1,wert2,..."), damit er einen Neustart übersteht und ein entnommenes
+ * Tupel nie ein zweites Mal ausgegeben wird.
+ *
+ * Achtung: die Datei enthält die geheimen Primfaktoren künftiger Schlüssel und ist
+ * genauso zu schützen wie die Dateien mit d.
+ */
+public class PrimPool {
+
+    private static PrimPool standard;
+
+    private final Path datei;
+    private final Map<String, Deque<BigInteger[]>> vorrat = new LinkedHashMap<>();
+    private final Map<String, Integer> zielGroessen = new LinkedHashMap<>();
+    private final Map<String, Supplier<BigInteger[]>> erzeuger = new LinkedHashMap<>();
+    private Thread auffueller;
+
+    /**
+     * @param datei Datei, aus der der Pool geladen und in die er geschrieben wird
+     */
+    public PrimPool(Path datei) {
+        this.datei = datei;
+        laden();
+    }
+
+    /**
+     * Gemeinsamer Pool der GUIs in prim_pool.txt (im Arbeitsverzeichnis, wie die Schlüsseldateien)
+     * mit bereits gestartetem Hintergrund-Thread.
+     */
+    public static synchronized PrimPool getStandard() {
+        if (standard == null) {
+            standard = new PrimPool(Path.of("prim_pool.txt"));
+            standard.starte();
+        }
+        return standard;
+    }
+
+    /**
+     * Registriert eine Art oder ändert ihre Zielgröße. Der Erzeuger läuft im Hintergrund-Thread
+     * und sollte daher sequentiell rechnen. Wirft er eine RuntimeException, wird die Art wieder
+     * abgemeldet; bereits vorrätige Tupel bleiben entnehmbar.
+     */
+    public synchronized void registriere(String art, int zielGroesse, Supplier<BigInteger[]> erzeuger) {
+        if (zielGroesse < 0) {
+            throw new IllegalArgumentException("Die Zielgröße muss ≥ 0 sein.");
+        }
+        this.zielGroessen.put(art, zielGroesse);
+        this.erzeuger.put(art, erzeuger);
+        vorrat.computeIfAbsent(art, k -> new ArrayDeque<>());
+        notifyAll();
+    }
+
+    public synchronized boolean istRegistriert(String art) {
+        return erzeuger.containsKey(art);
+    }
+
+    /**
+     * Entnimmt ein Tupel der Art und stößt das Auffüllen an. Das Tupel wird nur herausgegeben,
+     * wenn der Pool ohne es gespeichert werden konnte; sonst stünde es nach einem Neustart
+     * erneut in der Datei und würde ein zweites Mal ausgegeben.
+     * @return das Tupel oder null, falls für die Art gerade nichts vorrätig ist oder der Pool
+     *         nicht gespeichert werden konnte
+     */
+    public synchronized BigInteger[] entnehmen(String art) {
+        Deque<BigInteger[]> tupel = vorrat.get(art);
+        if (tupel == null || tupel.isEmpty()) {
+            notifyAll();
+            return null;
+        }
+        BigInteger[] ergebnis = tupel.pollFirst();
+        if (!speichern()) {
+            tupel.addFirst(ergebnis);
+            return null;
+        }
+        notifyAll();
+        return ergebnis;
+    }
+
+    public synchronized int groesse(String art) {
+        Deque<BigInteger[]> tupel = vorrat.get(art);
+        return tupel == null ? 0 : tupel.size();
+    }
+
+    /**
+     * Startet den Hintergrund-Thread (Daemon, minimale Priorität), falls er noch nicht läuft.
+     */
+    public synchronized void starte() {
+        if (auffueller != null && auffueller.isAlive()) {
+            return;
+        }
+        auffueller = new Thread(this::auffuellen, "PrimPool-Auffueller");
+        auffueller.setDaemon(true);
+        auffueller.setPriority(Thread.MIN_PRIORITY);
+        auffueller.start();
+    }
+
+    /**
+     * Beendet den Hintergrund-Thread; ein gerade laufender Erzeuger wird noch zu Ende gerechnet,
+     * sein Ergebnis aber verworfen.
+     */
+    public void stoppe() {
+        Thread thread;
+        synchronized (this) {
+            thread = auffueller;
+            auffueller = null;
+            notifyAll();
+        }
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void auffuellen() {
+        Thread selbst = Thread.currentThread();
+        while (true) {
+            String art;
+            Supplier<BigInteger[]> quelle;
+            synchronized (this) {
+                art = naechsteUnvollstaendigeArt();
+                while (art == null && auffueller == selbst) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    art = naechsteUnvollstaendigeArt();
+                }
+                if (auffueller != selbst) {
+                    return;
+                }
+                quelle = erzeuger.get(art);
+            }
+
+            BigInteger[] tupel;
+            try {
+                tupel = quelle.get();
+            } catch (RuntimeException e) {
+                // nur diese Art abmelden, die übrigen Arten werden weiter aufgefüllt
+                System.out.println("PrimPool: Fehler beim Erzeugen für " + art + ", Art wird abgemeldet: " + e.getMessage());
+                synchronized (this) {
+                    if (erzeuger.get(art) == quelle) {
+                        erzeuger.remove(art);
+                        zielGroessen.remove(art);
+                    }
+                }
+                continue;
+            }
+
+            synchronized (this) {
+                if (auffueller != selbst) {
+                    return;
+                }
+                vorrat.get(art).addLast(tupel);
+                speichern();
+            }
+        }
+    }
+
+    private String naechsteUnvollstaendigeArt() {
+        for (Map.Entry<String, Integer> eintrag : zielGroessen.entrySet()) {
+            if (vorrat.get(eintrag.getKey()).size() < eintrag.getValue()) {
+                return eintrag.getKey();
+            }
+        }
+        return null;
+    }
+
+    private void laden() {
+        if (!Files.exists(datei)) {
+            return;
+        }
+        try {
+            List<String> zeilen = Files.readAllLines(datei, StandardCharsets.UTF_8);
+            for (String zeile : zeilen) {
+                String[] teile = zeile.trim().split(",");
+                if (teile.length < 2) {
+                    continue;
+                }
+                BigInteger[] tupel = new BigInteger[teile.length - 1];
+                for (int i = 1; i < teile.length; i++) {
+                    tupel[i - 1] = new BigInteger(teile[i]);
+                }
+                vorrat.computeIfAbsent(teile[0], k -> new ArrayDeque<>()).addLast(tupel);
+            }
+        } catch (IOException | NumberFormatException e) {
+            System.out.println("PrimPool: Datei " + datei + " konnte nicht gelesen werden: " + e.getMessage());
+            vorrat.clear();
+        }
+    }
+
+    /**
+     * Schreibt den Pool über eine temporäre Datei, damit ein Abbruch beim Schreiben keinen
+     * halben Pool hinterlässt.
+     * @return false, falls die Datei nicht geschrieben werden konnte (sie hat dann den alten Stand)
+     */
+    private boolean speichern() {
+        Path temp = datei.resolveSibling(datei.getFileName() + ".tmp");
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(temp, StandardCharsets.UTF_8))) {
+            for (Map.Entry<String, Deque<BigInteger[]>> eintrag : vorrat.entrySet()) {
+                for (BigInteger[] tupel : eintrag.getValue()) {
+                    StringBuilder zeile = new StringBuilder(eintrag.getKey());
+                    for (BigInteger wert : tupel) {
+                        zeile.append(',').append(wert);
+                    }
+                    out.println(zeile);
+                }
+            }
+            if (out.checkError()) {
+                throw new IOException("Schreibfehler in " + temp);
+            }
+        } catch (IOException e) {
+            System.out.println("PrimPool: Fehler beim Speichern: " + e.getMessage());
+            return false;
+        }
+        try {
+            Files.move(temp, datei, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            System.out.println("PrimPool: Fehler beim Speichern: " + e.getMessage());
+            return false;
+        }
+    }
+}
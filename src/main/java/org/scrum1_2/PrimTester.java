@@ -1,13 +1,76 @@
 package org.scrum1_2;
 
+import org.scrum1_1.PrimGenerator;
+import org.scrum1_3.MontgomeryKontext;
+
 import java.math.BigInteger;
 import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 
 public class PrimTester {
 
     // Ein global wiederverwendbarer SecureRandom
     private static final SecureRandom RANDOM = new SecureRandom();
 
+    /**
+     * Verfahren für istPrimzahl(zahl, iteration, verfahren).
+     */
+    public enum Verfahren {
+        /** 'iteration' Miller-Rabin-Runden mit zufälligen Basen; Fehlerwahrscheinlichkeit ≤ 4^(-iteration). */
+        MILLER_RABIN,
+        /**
+         * Baillie-PSW: starker Test zur Basis 2 plus starker Lucas-Test (Selfridge-Parameter).
+         * Kein Gegenbeispiel bekannt, deterministisch und unabhängig von 'iteration'. Gemessen kostet
+         * ein Test bei 256 Bit etwa sieben BigInteger.modPow-Exponentiationen, bei 512 bis 1024 Bit
+         * etwa 13 bis 18, da die Lucas-Kette nicht mit dem intrinsischen modPow rechnet.
+         */
+        BAILLIE_PSW
+    }
+
+    /** Standard-Schranke des Vorfilters: etwa 85 % der ungeraden Kandidaten haben einen Primfaktor bis hier. */
+    public static final int STANDARD_SIEBSCHRANKE = 2000;
+
+    // Vorfilter je Schranke, beim ersten Gebrauch angelegt
+    private static final Map<Integer, Vorfilter> VORFILTER = new ConcurrentHashMap<>();
+
+    /**
+     * Die ungeraden Primzahlen bis zur Schranke, in Gruppen zusammengefasst, deren Produkt in ein
+     * long passt. Pro Gruppe kostet der Vorfilter eine BigInteger-Division, danach wird nur noch
+     * mit long-Resten gerechnet.
+     */
+    private static final class Vorfilter {
+        private final int[] primzahlen;
+        private final long[] produkte;
+        private final int[] gruppenEnde;  // Index hinter der letzten Primzahl der Gruppe
+
+        private Vorfilter(int schranke) {
+            primzahlen = PrimGenerator.kleinePrimzahlen(schranke + 1);
+
+            List<Long> produktListe = new ArrayList<>();
+            List<Integer> endeListe = new ArrayList<>();
+            long produkt = 1;
+            for (int i = 0; i < primzahlen.length; i++) {
+                if (produkt > Long.MAX_VALUE / primzahlen[i]) {
+                    produktListe.add(produkt);
+                    endeListe.add(i);
+                    produkt = 1;
+                }
+                produkt *= primzahlen[i];
+            }
+            if (produkt > 1) {
+                produktListe.add(produkt);
+                endeListe.add(primzahlen.length);
+            }
+            produkte = produktListe.stream().mapToLong(Long::longValue).toArray();
+            gruppenEnde = endeListe.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
     /**
      * Prüft, ob 'zahl' eine wahrscheinliche Primzahl ist,
      * indem Miller-Rabin ('iteration')-mal ausgeführt wird.
@@ -16,6 +79,15 @@ public class PrimTester {
      * @return true, wenn 'zahl' wahrscheinlich prim ist; sonst false
      */
     public static boolean istPrimzahl(BigInteger zahl, int iteration) {
+        return istPrimzahl(zahl, iteration, (ExecutorService) null);
+    }
+
+    /**
+     * Wie istPrimzahl(zahl, iteration), die Miller-Rabin-Zeugen werden aber auf den Executor
+     * verteilt (null = sequentiell). Lohnt sich bei großen Zahlen mit vielen Iterationen,
+     * da zusammengesetzte Kandidaten meist schon an Vorfilter oder erstem Zeugen scheitern.
+     */
+    public static boolean istPrimzahl(BigInteger zahl, int iteration, ExecutorService executor) {
         if (iteration < 1) {
             throw new IllegalArgumentException("Die Anzahl der Iterationen muss ≥ 1 sein.");
         }
@@ -26,73 +98,272 @@ public class PrimTester {
         // Gerade Zahlen (>2) sind keine Primzahlen
         if (zahl.mod(BigInteger.TWO).equals(BigInteger.ZERO)) return false;
 
-        // Schnellcheck: kleine Primfaktoren (3, 5, 7)
-        for (BigInteger p : new BigInteger[]{BigInteger.valueOf(3),
-                BigInteger.valueOf(5),
-                BigInteger.valueOf(7)}) {
-            if (zahl.mod(p).equals(BigInteger.ZERO) && !zahl.equals(p)) {
-                return false;
+        // bis 64 Bit exakt mit festen Basen auf long statt zufälliger Basen auf BigInteger
+        if (zahl.bitLength() <= 64) return istPrimzahl64(zahl.longValue());
+
+        // Vorfilter: kleine Primfaktoren ohne modulare Exponentiation
+        if (hatKleinenTeiler(zahl, STANDARD_SIEBSCHRANKE)) return false;
+
+        // Führe Miller-Rabin 'iteration'-mal durch (n - 1 = 2^r * d wird einmal zerlegt)
+        return new MillerRabinKontext(zahl).teste(iteration, RANDOM, executor);
+    }
+
+    /**
+     * Prüft 'zahl' mit dem gewählten Verfahren; 'iteration' wird nur für MILLER_RABIN verwendet.
+     */
+    public static boolean istPrimzahl(BigInteger zahl, int iteration, Verfahren verfahren) {
+        switch (verfahren) {
+            case MILLER_RABIN:
+                return istPrimzahl(zahl, iteration);
+            case BAILLIE_PSW:
+                return istPrimzahlBailliePSW(zahl);
+            default:
+                throw new IllegalArgumentException("Unbekanntes Verfahren: " + verfahren);
+        }
+    }
+
+    /**
+     * Baillie-PSW-Test (bis 64 Bit exakt über istPrimzahl64): Vorfilter bis STANDARD_SIEBSCHRANKE, starker Fermat-Test zur Basis 2 und
+     * starker Lucas-Test mit P = 1, Q = (1 - D)/4, wobei D das erste Element aus
+     * 5, -7, 9, -11, ... mit Jacobi(D/n) = -1 ist.
+     */
+    public static boolean istPrimzahlBailliePSW(BigInteger zahl) {
+        if (zahl.compareTo(BigInteger.TWO) < 0) return false;
+        if (zahl.equals(BigInteger.TWO)) return true;
+        if (zahl.bitLength() <= 64) return istPrimzahl64(zahl.longValue());
+        if (hatKleinenTeiler(zahl, STANDARD_SIEBSCHRANKE)) return false;
+
+        // starker Test zur Basis 2
+        if (!new MillerRabinKontext(zahl).besteht(BigInteger.TWO)) {
+            return false;
+        }
+
+        // Quadratzahlen haben kein D mit Jacobi(D/n) = -1
+        BigInteger wurzel = zahl.sqrt();
+        if (wurzel.multiply(wurzel).equals(zahl)) {
+            return false;
+        }
+        long dLucas = 5;
+        while (true) {
+            int jacobi = jacobiSymbol(BigInteger.valueOf(dLucas), zahl);
+            if (jacobi == -1) {
+                break;
+            }
+            if (jacobi == 0 && !zahl.equals(BigInteger.valueOf(Math.abs(dLucas)))) {
+                return false; // gemeinsamer Teiler mit D
             }
+            dLucas = dLucas > 0 ? -(dLucas + 2) : -dLucas + 2;
         }
+        return starkerLucasTest(zahl, dLucas);
+    }
 
-        // Zerlege (n - 1) = 2^r * d, wobei d ungerade
-        BigInteger d = zahl.subtract(BigInteger.ONE);
-        int r = 0;
-        while (d.mod(BigInteger.TWO).equals(BigInteger.ZERO)) {
-            d = d.divide(BigInteger.TWO);
-            r++;
+    /**
+     * Exakter Primzahltest für 0 ≤ n < 2^64 (n wird vorzeichenlos gelesen): Miller-Rabin mit den
+     * Basen 2, 3, ..., 37, die für alle n < 3,3·10^24 deterministisch sind. Gerechnet wird ohne
+     * BigInteger mit 64-Bit-Montgomery-Arithmetik (Math.unsignedMultiplyHigh), also ohne Allokation.
+     */
+    public static boolean istPrimzahl64(long n) {
+        if (Long.compareUnsigned(n, 38) < 0) {
+            return n == 2 || n == 3 || n == 5 || n == 7 || n == 11 || n == 13 || n == 17 || n == 19
+                    || n == 23 || n == 29 || n == 31 || n == 37;
         }
-        // Nun gilt: n - 1 = 2^r * d
+        // Probedivision durch die Basen selbst (n ≥ 38, also kein echter Teiler gleich n)
+        for (long p : BASEN_64) {
+            if (Long.remainderUnsigned(n, p) == 0) {
+                return false;
+            }
+        }
+        // n' = n^(-1) mod 2^64 per Newton-Iteration (jede Runde verdoppelt die korrekten Bits)
+        long nInv = n;
+        for (int i = 0; i < 5; i++) {
+            nInv *= 2 - n * nInv;
+        }
+        long eins = Long.remainderUnsigned(-n, n);           // R mod n = 2^64 mod n
+        long minusEins = n - eins;
+        long rQuadrat = eins;                                 // R² mod n = R · 2^64 mod n
+        for (int i = 0; i < 64; i++) {
+            rQuadrat = addiereMod64(rQuadrat, rQuadrat, n);
+        }
+        long d = n - 1;
+        int r = Long.numberOfTrailingZeros(d);
+        d >>>= r;
 
-        // Führe Miller-Rabin 'iteration'-mal durch
-        for (int i = 0; i < iteration; i++) {
-            if (!millerRabinTest(zahl, d, r)) {
-                return false; // zusammengesetzt
+        for (long basis : BASEN_64) {
+            // x = a^d in Montgomery-Form (a < 38 ≤ n)
+            long b = montgomery64(basis, rQuadrat, n, nInv);
+            long x = eins;
+            for (int i = 63 - Long.numberOfLeadingZeros(d); i >= 0; i--) {
+                x = montgomery64(x, x, n, nInv);
+                if (((d >>> i) & 1) != 0) {
+                    x = montgomery64(x, b, n, nInv);
+                }
+            }
+            if (x == eins || x == minusEins) {
+                continue;
+            }
+            boolean bestanden = false;
+            for (int i = 1; i < r; i++) {
+                x = montgomery64(x, x, n, nInv);
+                if (x == minusEins) {
+                    bestanden = true;
+                    break;
+                }
+                if (x == eins) {
+                    break;
+                }
+            }
+            if (!bestanden) {
+                return false;
             }
         }
-        return true; // mit sehr hoher Wahrscheinlichkeit prim
+        return true;
+    }
+
+    private static final long[] BASEN_64 = {2, 3, 5, 7, 11, 13, 17, 19, 23, 29, 31, 37};
+
+    /** a·b·2^(-64) mod n für a, b < n (REDC), n ungerade. */
+    private static long montgomery64(long a, long b, long n, long nInv) {
+        long lo = a * b;
+        long hi = Math.unsignedMultiplyHigh(a, b);
+        long m = lo * nInv;                                   // m·n ≡ a·b (mod 2^64)
+        long mnHi = Math.unsignedMultiplyHigh(m, n);
+        long ergebnis = hi - mnHi;                            // (a·b - m·n) / 2^64, exakt
+        return Long.compareUnsigned(hi, mnHi) < 0 ? ergebnis + n : ergebnis;
+    }
+
+    /** a + b mod n für a, b < n, auch wenn die Summe über 2^64 hinausgeht. */
+    private static long addiereMod64(long a, long b, long n) {
+        long summe = a + b;
+        if (Long.compareUnsigned(summe, a) < 0 || Long.compareUnsigned(summe, n) >= 0) {
+            summe -= n;
+        }
+        return summe;
     }
 
     /**
-     * Ein einzelner Miller-Rabin-Testlauf mit vorzerlegtem d und gegebenem r.
-     * @param zahl die zu testende Zahl (ungerade, >3)
-     * @param d    ungerader Teil (n - 1 = 2^r * d)
-     * @param r    Anzahl der Faktoren 2 in (n - 1)
-     * @return true, wenn dieser Testlauf bestanden ist; false, wenn eindeutig zusammengesetzt
+     * Vorfilter vor Miller-Rabin: true, wenn zahl ≥ 2 einen Primfaktor p ≤ schranke mit p ≠ zahl hat,
+     * also sicher zusammengesetzt ist. Statt einer Division je Primzahl wird zahl einmal pro Gruppe
+     * durch ein long-Produkt mehrerer Primzahlen geteilt und der Rest mit long-Arithmetik geprüft.
      */
-    private static boolean millerRabinTest(BigInteger zahl, BigInteger d, int r) {
-        // Wähle Basis a ∈ [2, n-2]
-        BigInteger a = BigInteger.TWO
-                .add(new BigInteger(zahl.bitLength(), RANDOM)
-                        .mod(zahl.subtract(BigInteger.TWO)));
-
-        // x = a^d mod n
-        BigInteger x = a.modPow(d, zahl);
-        // Wenn x ≡ 1 oder x ≡ -1 mod n: Testlauf bestanden
-        if (x.equals(BigInteger.ONE) || x.equals(zahl.subtract(BigInteger.ONE))) {
-            return true;
+    public static boolean hatKleinenTeiler(BigInteger zahl, int schranke) {
+        if (zahl.compareTo(BigInteger.TWO) < 0) return false;
+        if (!zahl.testBit(0)) return !zahl.equals(BigInteger.TWO);
+        Vorfilter filter = VORFILTER.computeIfAbsent(schranke, Vorfilter::new);
+
+        if (zahl.bitLength() < 32 && zahl.intValue() <= schranke) {
+            // kleine Zahl: direkte Probedivision bis zur Wurzel
+            int n = zahl.intValue();
+            for (int p : filter.primzahlen) {
+                if ((long) p * p > n) {
+                    return false;
+                }
+                if (n % p == 0) {
+                    return true;
+                }
+            }
+            return false;
         }
 
-        // Wiederhole Quadrieren (r-1)-mal: x ← x^2 mod n
-        BigInteger dLok = d;
-        for (int i = 1; i < r; i++) {
-            x = x.modPow(BigInteger.TWO, zahl); // x = x^2 mod n
-            dLok = dLok.multiply(BigInteger.TWO);
+        int von = 0;
+        for (int g = 0; g < filter.produkte.length; g++) {
+            long rest = zahl.mod(BigInteger.valueOf(filter.produkte[g])).longValue();
+            for (int i = von; i < filter.gruppenEnde[g]; i++) {
+                if (rest % filter.primzahlen[i] == 0) {
+                    return true;  // zahl > schranke ≥ p, also echter Teiler
+                }
+            }
+            von = filter.gruppenEnde[g];
+        }
+        return false;
+    }
 
-            // Wenn x ≡ 1, dann zusammengesetzt
-            if (x.equals(BigInteger.ONE)) {
-                return false;
+    public static boolean hatKleinenTeiler(BigInteger zahl) {
+        return hatKleinenTeiler(zahl, STANDARD_SIEBSCHRANKE);
+    }
+
+    /**
+     * Starker Lucas-Test mit P = 1, Q = (1 - D)/4: mit n + 1 = 2^s * d ist n wahrscheinlich prim,
+     * wenn U_d ≡ 0 oder V_(d·2^i) ≡ 0 (mod n) für ein 0 ≤ i < s.
+     *
+     * Gerechnet wird nur mit der Lucas-Kette (V_k, V_(k+1)) und Q^k im Montgomery-Bereich:
+     * V_2k = V_k^2 - 2Q^k, V_(2k+1) = V_k V_(k+1) - P Q^k. Wegen D U_k = 2V_(k+1) - P V_k und
+     * ggT(D, n) = 1 ist U_d ≡ 0 gleichbedeutend mit 2V_(d+1) ≡ V_d, U wird also nie gebraucht.
+     */
+    static boolean starkerLucasTest(BigInteger zahl, long dLucas) {
+        MontgomeryKontext kontext = new MontgomeryKontext(zahl);
+        long[] t = kontext.neuerPuffer();
+        long[] qM = kontext.inMontgomeryForm(BigInteger.valueOf((1 - dLucas) / 4), t);
+
+        BigInteger d = zahl.add(BigInteger.ONE);
+        int s = d.getLowestSetBit();
+        d = d.shiftRight(s);
+
+        // k = 0: V_0 = 2, V_1 = P = 1, Q^0 = 1
+        long[] v = kontext.inMontgomeryForm(BigInteger.TWO, t);
+        long[] v1 = kontext.einsInMontgomeryForm();
+        long[] qk = kontext.einsInMontgomeryForm();
+        long[] hilf = new long[kontext.getLaenge()];
+        for (int i = d.bitLength() - 1; i >= 0; i--) {
+            if (d.testBit(i)) {
+                // k → 2k + 1: V_(2k+1), V_(2k+2) = V_(k+1)^2 - 2Q^(k+1), Q^(2k+1)
+                kontext.montgomeryMultiplikation(qk, qM, hilf, t);
+                kontext.montgomeryMultiplikation(v, v1, v, t);
+                kontext.modSubtraktion(v, qk, v);
+                kontext.montgomeryMultiplikation(v1, v1, v1, t);
+                kontext.montgomeryMultiplikation(qk, hilf, qk, t);
+                kontext.modAddition(hilf, hilf, hilf);
+                kontext.modSubtraktion(v1, hilf, v1);
+            } else {
+                // k → 2k: V_(2k+1), V_2k, Q^2k
+                kontext.montgomeryMultiplikation(v, v1, v1, t);
+                kontext.modSubtraktion(v1, qk, v1);
+                kontext.montgomeryMultiplikation(v, v, v, t);
+                kontext.modAddition(qk, qk, hilf);
+                kontext.modSubtraktion(v, hilf, v);
+                kontext.montgomeryMultiplikation(qk, qk, qk, t);
             }
-            // Wenn x ≡ -1, Testlauf bestanden
-            if (x.equals(zahl.subtract(BigInteger.ONE))) {
+        }
+        // U_d ≡ 0 ⇔ 2V_(d+1) ≡ V_d
+        kontext.modAddition(v1, v1, hilf);
+        if (Arrays.equals(hilf, v) || kontext.istNull(v)) {
+            return true;
+        }
+        for (int i = 1; i < s; i++) {
+            kontext.montgomeryMultiplikation(v, v, v, t);
+            kontext.modAddition(qk, qk, hilf);
+            kontext.modSubtraktion(v, hilf, v);
+            if (kontext.istNull(v)) {
                 return true;
             }
+            kontext.montgomeryMultiplikation(qk, qk, qk, t);
         }
-
-        // Nach r Schritten kein -1 gefunden → zusammengesetzt
         return false;
     }
 
+    /**
+     * Jacobi-Symbol (a/n) für ungerades n > 0.
+     */
+    static int jacobiSymbol(BigInteger a, BigInteger n) {
+        a = a.mod(n);
+        int ergebnis = 1;
+        while (a.signum() != 0) {
+            int t = a.getLowestSetBit();
+            a = a.shiftRight(t);
+            int nMod8 = n.intValue() & 7;
+            if ((t & 1) == 1 && (nMod8 == 3 || nMod8 == 5)) {
+                ergebnis = -ergebnis;
+            }
+            // Reziprozität: Vorzeichenwechsel, wenn a ≡ n ≡ 3 (mod 4)
+            if ((a.intValue() & 3) == 3 && (n.intValue() & 3) == 3) {
+                ergebnis = -ergebnis;
+            }
+            BigInteger temp = a;
+            a = n.mod(temp);
+            n = temp;
+        }
+        return n.equals(BigInteger.ONE) ? ergebnis : 0;
+    }
+
     public static void main(String[] args) {
         BigInteger testZahl = new BigInteger("104729");
         int iteration = 20;
@@ -1,6 +1,7 @@
 package org.scrum1_27;
 import org.scrum1_16.SecPrimGenerator;
-import org.scrum1_3.schnelleExponentiation;
+import org.scrum1_3.MontgomeryKontext;
+import org.scrum1_3.VorberechneteBasis;
 
 import java.math.BigInteger;
 import java.security.SecureRandom;
@@ -30,6 +31,8 @@ public class ElGamalPublicKeyEncryption {
 
     /**
      * Verschlüsselt eine Nachricht M mit ElGamal.
+     * Kontext und Potenztabelle von g werden bei jedem Aufruf neu angelegt; für mehrere
+     * Nachrichten die Variante mit VorberechneteBasis verwenden.
      * @param M Die Nachricht als Zahl
      * @param p Die Primzahl p
      * @param g Die Primitivwurzel g
@@ -37,7 +40,23 @@ public class ElGamalPublicKeyEncryption {
      * @return Das Chiffrat {a, b}
      */
     public static BigInteger[] encrypt(BigInteger M, BigInteger p, BigInteger g, BigInteger y) {
+        MontgomeryKontext kontext = new MontgomeryKontext(p);
+        return encrypt(M, new VorberechneteBasis(kontext, g, MontgomeryKontext.standardFensterBreite(p.bitLength())), y);
+    }
+
+    /**
+     * Verschlüsselt eine Nachricht M mit ElGamal, wobei die Potenztabelle des Generators g
+     * bereits vorliegt. Bei mehreren Nachrichten an denselben Empfänger wird die Tabelle
+     * nur einmal aufgebaut.
+     * @param M Die Nachricht als Zahl
+     * @param g Vorberechnete Tabelle der Primitivwurzel g (Modulus p)
+     * @param y Öffentlicher Schlüssel
+     * @return Das Chiffrat {a, b}
+     */
+    public static BigInteger[] encrypt(BigInteger M, VorberechneteBasis g, BigInteger y) {
         long startTime = System.nanoTime();
+        MontgomeryKontext kontext = g.getKontext();
+        BigInteger p = kontext.getModulus();
 
         // Wähle eine zufällige Zahl k aus dem Bereich [1, p-2]
         BigInteger k;
@@ -45,10 +64,10 @@ public class ElGamalPublicKeyEncryption {
             k = new BigInteger(p.bitLength() - 1, random);
         } while (k.compareTo(BigInteger.ZERO) <= 0 || k.compareTo(p.subtract(BigInteger.TWO)) >= 0);
 
-        // Berechnung von a = g^k mod p
-        BigInteger a = schnelleExponentiation.schnelleExponentiation(g, k, p);
+        // Berechnung von a = g^k mod p (Tabelle von g wird wiederverwendet)
+        BigInteger a = g.potenz(k);
         // Berechnung von b = M * y^k mod p
-        BigInteger b = M.multiply(schnelleExponentiation.schnelleExponentiation(y, k, p)).mod(p);
+        BigInteger b = M.multiply(kontext.schiebefensterExponentiation(y, k)).mod(p);
 
         long endTime = System.nanoTime();
         System.out.println("Verschlüsselung dauerte: " + (endTime - startTime) / 1e6 + " ms");
@@ -65,10 +84,23 @@ public class ElGamalPublicKeyEncryption {
      * @return Die entschlüsselte Nachricht
      */
     public static BigInteger decrypt(BigInteger a, BigInteger b, BigInteger p, BigInteger x) {
+        return decrypt(a, b, new MontgomeryKontext(p), x);
+    }
+
+    /**
+     * Entschlüsselt das Chiffrat mit dem geheimen Schlüssel x und dem bereits angelegten Kontext zu p.
+     * @param a Der erste Teil des Chiffrats
+     * @param b Der zweite Teil des Chiffrats
+     * @param kontext Montgomery-Kontext der Primzahl p
+     * @param x Der private Schlüssel
+     * @return Die entschlüsselte Nachricht
+     */
+    public static BigInteger decrypt(BigInteger a, BigInteger b, MontgomeryKontext kontext, BigInteger x) {
         long startTime = System.nanoTime();
+        BigInteger p = kontext.getModulus();
 
         // Berechnung von a^x mod p
-        BigInteger z = schnelleExponentiation.schnelleExponentiation(a, x, p);
+        BigInteger z = kontext.schiebefensterExponentiation(a, x);
 
         // Berechnung des modularen Inversen von z mod p
         BigInteger zInverse = z.modInverse(p);
@@ -102,10 +134,12 @@ public class ElGamalPublicKeyEncryption {
         System.out.println("Privater Schlüssel: x=" + x);
         System.out.println("Ursprüngliche Nachricht: M=" + M);
 
-        BigInteger[] cipher = encrypt(M, p, g, y);
+        MontgomeryKontext kontext = new MontgomeryKontext(p);
+        VorberechneteBasis basis = new VorberechneteBasis(kontext, g, MontgomeryKontext.standardFensterBreite(p.bitLength()));
+        BigInteger[] cipher = encrypt(M, basis, y);
         System.out.println("Chiffrat: a=" + cipher[0] + ", b=" + cipher[1]);
 
-        BigInteger decrypted = decrypt(cipher[0], cipher[1], p, x);
+        BigInteger decrypted = decrypt(cipher[0], cipher[1], kontext, x);
         System.out.println("Entschlüsselte Nachricht: M=" + decrypted);
     }
 }
@@ -0,0 +1,108 @@
+package org.scrum1_3;
+
+import java.math.BigInteger;
+
+/**
+ * Tabelle der ungeraden Potenzen einer festen Basis für die Exponentiation mit
+ * gleitendem Fenster. Die Tabelle liegt in Montgomery-Form vor und wird nur einmal
+ * aufgebaut, sodass wiederholte Exponentiationen derselben Basis
+ * (z.B. der Generator g bei ElGamal) nur noch die Hauptschleife kosten.
+ *
+ * Die Tabelle wird nach dem Aufbau nicht mehr verändert und kann von mehreren
+ * Threads gleichzeitig gelesen werden.
+ */
+public class VorberechneteBasis {
+
+    private final MontgomeryKontext kontext;
+    private final BigInteger basis;
+    private final int fensterBreite;
+    private final long[][] ungeradePotenzen;   // [k] = basis^(2k+1) in Montgomery-Form
+
+    /**
+     * @param kontext       Montgomery-Kontext des Modulus
+     * @param basis         feste Basis
+     * @param fensterBreite Fensterbreite w (1 bis 8), die Tabelle hat 2^(w-1) Einträge
+     */
+    public VorberechneteBasis(MontgomeryKontext kontext, BigInteger basis, int fensterBreite) {
+        if (fensterBreite < 1 || fensterBreite > 8) {
+            throw new IllegalArgumentException("Die Fensterbreite muss zwischen 1 und 8 liegen.");
+        }
+        this.kontext = kontext;
+        this.basis = basis.mod(kontext.getModulus());
+        this.fensterBreite = fensterBreite;
+
+        long[] t = kontext.neuerPuffer();
+        int groesse = 1 << (fensterBreite - 1);
+        ungeradePotenzen = new long[groesse][];
+        ungeradePotenzen[0] = kontext.inMontgomeryForm(this.basis, t);
+        if (groesse > 1) {
+            // basis² als Schrittweite zwischen zwei ungeraden Potenzen
+            long[] quadrat = new long[kontext.getLaenge()];
+            kontext.montgomeryMultiplikation(ungeradePotenzen[0], ungeradePotenzen[0], quadrat, t);
+            for (int k = 1; k < groesse; k++) {
+                ungeradePotenzen[k] = new long[kontext.getLaenge()];
+                kontext.montgomeryMultiplikation(ungeradePotenzen[k - 1], quadrat, ungeradePotenzen[k], t);
+            }
+        }
+    }
+
+    public MontgomeryKontext getKontext() {
+        return kontext;
+    }
+
+    public BigInteger getBasis() {
+        return basis;
+    }
+
+    public int getFensterBreite() {
+        return fensterBreite;
+    }
+
+    /**
+     * Berechnet basis^exponent mod n mit gleitendem Fenster (links-nach-rechts):
+     * Nullbits kosten eine Quadrierung, ein Fenster mit ungeradem Wert u der Länge l
+     * kostet l Quadrierungen und eine Multiplikation mit basis^u aus der Tabelle.
+     * @param exponent Exponent ≥ 0
+     * @return (basis^exponent) mod n
+     */
+    public BigInteger potenz(BigInteger exponent) {
+        if (exponent.signum() < 0) {
+            throw new IllegalArgumentException("Der Exponent muss ≥ 0 sein.");
+        }
+        long[] t = kontext.neuerPuffer();
+        long[] x = kontext.einsInMontgomeryForm();
+        boolean nochEins = true;    // x ist noch 1, Quadrieren kann entfallen
+
+        int i = exponent.bitLength() - 1;
+        while (i >= 0) {
+            if (!exponent.testBit(i)) {
+                if (!nochEins) {
+                    kontext.montgomeryMultiplikation(x, x, x, t);
+                }
+                i--;
+                continue;
+            }
+            // Längstes Fenster [i..l] mit höchstens w Bits, das auf einem gesetzten Bit endet
+            int l = Math.max(i - fensterBreite + 1, 0);
+            while (!exponent.testBit(l)) {
+                l++;
+            }
+            int wert = 0;
+            for (int k = i; k >= l; k--) {
+                wert = (wert << 1) | (exponent.testBit(k) ? 1 : 0);
+            }
+
+            if (nochEins) {
+                System.arraycopy(ungeradePotenzen[wert >>> 1], 0, x, 0, x.length);
+                nochEins = false;
+            } else {
+                for (int k = i; k >= l; k--) {
+                    kontext.montgomeryMultiplikation(x, x, x, t);
+                }
+                kontext.montgomeryMultiplikation(x, ungeradePotenzen[wert >>> 1], x, t);
+            }
+            i = l - 1;
+        }
+        return kontext.ausMontgomeryForm(x, t);
+    }
+}
@@ -31,6 +31,24 @@ public class schnelleExponentiation {
         return result;
     }
 
+    /**
+     * schnelle Exponentiation mit Montgomery-Multiplikation (siehe MontgomeryKontext).
+     * Legt bei jedem Aufruf einen neuen Kontext an; bei vielen Exponentiationen mit demselben
+     * Modulus den Kontext selbst anlegen und wiederverwenden.
+     * Für gerade Moduli wird auf schnelleExponentiation zurückgegriffen.
+     * @param basis = Basis
+     * @param exponent = Exponent (≥ 0)
+     * @param modulus = Modulo
+     * @return  (base^exponent) mod modulus
+     */
+    public static BigInteger montgomeryExponentiation(BigInteger basis, BigInteger exponent, BigInteger modulus) {
+        if(modulus.equals(BigInteger.ONE)) return BigInteger.ZERO;
+        if(exponent.equals(BigInteger.ZERO)) return BigInteger.ONE;
+        if(!modulus.testBit(0)) return schnelleExponentiation(basis, exponent, modulus);
+
+        return new MontgomeryKontext(modulus).schnelleExponentiation(basis, exponent);
+    }
+
     /*
     n = 6 :2 = 3 (Rest 0) , LSB = 0
     n = 13 Binär= 1101, LSB = 1
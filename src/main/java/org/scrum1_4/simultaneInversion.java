@@ -0,0 +1,77 @@
+package org.scrum1_4;
+
+import org.scrum1_3.MontgomeryKontext;
+
+import java.math.BigInteger;
+
+/**
+ * Simultane Inversion (Montgomery-Trick): N Elemente mod n mit einer einzigen Inversion
+ * und 3(N-1) Multiplikationen invertieren.
+ *
+ * Vorwärts werden die Präfixprodukte c_i = a_0·...·a_i gebildet, c_(N-1) wird einmal invertiert,
+ * rückwärts gilt dann a_i^(-1) = c_(i-1)·(a_i·...·a_(N-1))^(-1). Lohnt sich überall, wo viele
+ * Punkte auf einmal in affine Koordinaten umgerechnet werden (Tabellen, ElGamal-Tupel).
+ */
+public class simultaneInversion {
+
+    /**
+     * @param werte   Elemente mod n (werden nicht verändert)
+     * @param modulus n
+     * @return die Inversen a_i^(-1) mod n in derselben Reihenfolge
+     * @throws ArithmeticException falls ein Element nicht invertierbar ist (z.B. 0)
+     */
+    public static BigInteger[] invertiere(BigInteger[] werte, BigInteger modulus) {
+        int anzahl = werte.length;
+        BigInteger[] ergebnis = new BigInteger[anzahl];
+        if (anzahl == 0) {
+            return ergebnis;
+        }
+        // Präfixprodukte vorübergehend im Ergebnis-Array
+        ergebnis[0] = werte[0].mod(modulus);
+        for (int i = 1; i < anzahl; i++) {
+            ergebnis[i] = ergebnis[i - 1].multiply(werte[i]).mod(modulus);
+        }
+        // wirft ArithmeticException, wenn das Produkt (also ein Faktor) nicht invertierbar ist
+        BigInteger inverse = ergebnis[anzahl - 1].modInverse(modulus);
+        for (int i = anzahl - 1; i > 0; i--) {
+            ergebnis[i] = inverse.multiply(ergebnis[i - 1]).mod(modulus);
+            inverse = inverse.multiply(werte[i]).mod(modulus);
+        }
+        ergebnis[0] = inverse;
+        return ergebnis;
+    }
+
+    /**
+     * Dasselbe auf long[]-Resten in Montgomery-Form: werte[i] wird in-place durch seine Inverse
+     * (wieder in Montgomery-Form) ersetzt. Nur die eine Inversion läuft über BigInteger.
+     *
+     * @throws ArithmeticException falls ein Element 0 ist; werte bleibt dann unverändert
+     */
+    public static void invertiere(long[][] werte, MontgomeryKontext kontext) {
+        int anzahl = werte.length;
+        if (anzahl == 0) {
+            return;
+        }
+        for (long[] wert : werte) {
+            if (kontext.istNull(wert)) {
+                throw new ArithmeticException("Die 0 ist nicht invertierbar.");
+            }
+        }
+        long[] t = kontext.neuerPuffer();
+        long[][] praefix = new long[anzahl][];
+        praefix[0] = werte[0].clone();
+        for (int i = 1; i < anzahl; i++) {
+            praefix[i] = new long[kontext.getLaenge()];
+            kontext.montgomeryMultiplikation(praefix[i - 1], werte[i], praefix[i], t);
+        }
+        BigInteger produkt = kontext.ausMontgomeryForm(praefix[anzahl - 1], t);
+        long[] inverse = kontext.inMontgomeryForm(produkt.modInverse(kontext.getModulus()), t);
+        for (int i = anzahl - 1; i > 0; i--) {
+            // praefix[i] wird nicht mehr gebraucht und nimmt a_i^(-1) auf, bevor a_i überschrieben wird
+            kontext.montgomeryMultiplikation(inverse, praefix[i - 1], praefix[i], t);
+            kontext.montgomeryMultiplikation(inverse, werte[i], inverse, t);
+            System.arraycopy(praefix[i], 0, werte[i], 0, inverse.length);
+        }
+        System.arraycopy(inverse, 0, werte[0], 0, inverse.length);
+    }
+}
@@ -49,18 +49,24 @@ public class AliceDecryptionGUI extends RSAUTF8 {
                         byte[] raw = Files.readAllBytes(selectedFile.toPath());
                         String content = new String(raw, StandardCharsets.UTF_8).trim();
                         System.out.println("DEBUG: Inhalt der Datei: " + content);
-                        // Verwende Alices Modulus für die Umwandlung der Blöcke
-                        BigInteger modulus = RSAUtils.getAliceModulus();
-                        System.out.println("DEBUG: Verwendeter Modulus (Alice): " + modulus);
-                        List<BigInteger> recoveredBlocks = base64StringToBlocks(content, modulus);
-                        System.out.println("DEBUG: Anzahl der wiederhergestellten Blöcke: " + recoveredBlocks.size());
-                        for (int i = 0; i < recoveredBlocks.size(); i++) {
-                            System.out.println("DEBUG: Wiederhergestellter Block " + i + ": " + recoveredBlocks.get(i));
-                        }
-                        RSAResult recoveredResult = new RSAResult(recoveredBlocks);
-                        // Hier wird 'true' übergeben, sodass Alices privater Schlüssel verwendet wird
                         long startDecrypt = System.currentTimeMillis();
-                        String decrypted = decrypt(recoveredResult, true);
+                        String decrypted;
+                        if (isHybrid(content)) {
+                            // Hybridformat (RSA-KEM + AES-GCM): eine RSA-Operation unabhängig von der Länge
+                            decrypted = decryptHybrid(content, true);
+                        } else {
+                            // Verwende Alices Modulus für die Umwandlung der Blöcke
+                            BigInteger modulus = RSAUtils.getAliceModulus();
+                            System.out.println("DEBUG: Verwendeter Modulus (Alice): " + modulus);
+                            List<BigInteger> recoveredBlocks = base64StringToBlocks(content, modulus);
+                            System.out.println("DEBUG: Anzahl der wiederhergestellten Blöcke: " + recoveredBlocks.size());
+                            for (int i = 0; i < recoveredBlocks.size(); i++) {
+                                System.out.println("DEBUG: Wiederhergestellter Block " + i + ": " + recoveredBlocks.get(i));
+                            }
+                            RSAResult recoveredResult = new RSAResult(recoveredBlocks);
+                            // Hier wird 'true' übergeben, sodass Alices privater Schlüssel verwendet wird
+                            decrypted = decrypt(recoveredResult, true);
+                        }
                         long decryptionTime = System.currentTimeMillis() - startDecrypt;
                         System.out.println("DEBUG: Entschlüsselungszeit: " + decryptionTime + " ms");
                         outputArea.setText(decrypted);
@@ -68,6 +74,8 @@ public class AliceDecryptionGUI extends RSAUTF8 {
                     } catch (IOException ex) {
                         JOptionPane.showMessageDialog(frame, "Fehler beim Lesen der Datei: " + ex.getMessage());
                         System.out.println("DEBUG: Fehler beim Lesen der Datei: " + ex.getMessage());
+                    } catch (IllegalArgumentException ex) {
+                        JOptionPane.showMessageDialog(frame, "Ungültiges Chiffrat: " + ex.getMessage());
                     }
                 }
             } else {
@@ -0,0 +1,86 @@
+package org.scrum1_6;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Gemeinsame Hilfsmethoden der blockweisen Strom-Ver- und -Entschlüsselung
+ * (RSAUTF8.encryptStream/decryptStream und ECCElgamalBlockCipher.encryptStream/decryptStream).
+ */
+public class BlockStromUtils {
+
+    private BlockStromUtils() {
+    }
+
+    /**
+     * Schreibt v rechtsbündig mit fester Länge len ab off in ziel (wie bigIntegerBlocksToBytes).
+     */
+    public static void schreibeFesteLaenge(BigInteger v, byte[] ziel, int off, int len) {
+        byte[] bytes = v.toByteArray();
+        if (bytes.length >= len) {
+            System.arraycopy(bytes, bytes.length - len, ziel, off, len);
+        } else {
+            int nullen = len - bytes.length;
+            Arrays.fill(ziel, off, off + nullen, (byte) 0);
+            System.arraycopy(bytes, 0, ziel, off + nullen, bytes.length);
+        }
+    }
+
+    /**
+     * Hülle, deren close() nur flusht, damit der Base64-Encoder den eigentlichen Strom offen lässt.
+     */
+    public static OutputStream nichtSchliessend(OutputStream out) {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+    }
+
+    /**
+     * Schreibt entschlüsselte Klartextblöcke und entfernt dabei nur das Zero-Padding am Ende:
+     * Nullbytes werden zurückgehalten, bis feststeht, ob noch Nutzdaten folgen. Der Speicherbedarf
+     * bleibt unabhängig von der Länge einer Nullfolge konstant.
+     */
+    public static class OhnePadding {
+
+        private final OutputStream out;
+        private final byte[] nullen;
+        private long offeneNullen = 0;
+
+        public OhnePadding(OutputStream out, int blockLaenge) {
+            this.out = out;
+            this.nullen = new byte[blockLaenge];
+        }
+
+        /**
+         * Schreibt die ersten len Bytes von block; Nullen am Blockende bleiben offen.
+         */
+        public void schreibe(byte[] block, int len) throws IOException {
+            int letztes = len - 1;
+            while (letztes >= 0 && block[letztes] == 0) {
+                letztes--;
+            }
+            if (letztes < 0) {
+                offeneNullen += len;
+                return;
+            }
+            while (offeneNullen > 0) {
+                int anzahl = (int) Math.min(offeneNullen, nullen.length);
+                out.write(nullen, 0, anzahl);
+                offeneNullen -= anzahl;
+            }
+            out.write(block, 0, letztes + 1);
+            offeneNullen = len - 1 - letztes;
+        }
+    }
+}
@@ -48,19 +48,25 @@ public class BobDecryptionGUI extends RSAUTF8 {
                         // Lese den Inhalt der Datei mit CP437 ein
                         String content = new String(Files.readAllBytes(selectedFile.toPath()), CP437);
                         System.out.println("DEBUG: Inhalt der Datei (CP437): " + content);
-                        // Verwende Bobs Modulus für die Umwandlung der Blöcke
-                        BigInteger modulus = RSAUtils.getBobModulus();
-                        System.out.println("DEBUG: Verwendeter Modulus (Alice): " + modulus);
-                        List<BigInteger> recoveredBlocks = base64StringToBlocks(content, modulus);
-                        System.out.println("DEBUG: Anzahl der wiederhergestellten Blöcke: " + recoveredBlocks.size());
-                        for (int i = 0; i < recoveredBlocks.size(); i++) {
-                            System.out.println("DEBUG: Wiederhergestellter Block " + i + ": " + recoveredBlocks.get(i));
-                        }
-                        RSAResult recoveredResult = new RSAResult(recoveredBlocks);
-                        // Für die Entschlüsselung von Nachrichten, die von Alice an Bob gesendet wurden,
-                        // wird in decrypt() das Flag false übergeben (Bobs privater Schlüssel wird genutzt).
                         long startDecrypt = System.currentTimeMillis();
-                        String decrypted = decrypt(recoveredResult, false);
+                        String decrypted;
+                        if (isHybrid(content)) {
+                            // Hybridformat (RSA-KEM + AES-GCM): eine RSA-Operation unabhängig von der Länge
+                            decrypted = decryptHybrid(content, false);
+                        } else {
+                            // Verwende Bobs Modulus für die Umwandlung der Blöcke
+                            BigInteger modulus = RSAUtils.getBobModulus();
+                            System.out.println("DEBUG: Verwendeter Modulus (Alice): " + modulus);
+                            List<BigInteger> recoveredBlocks = base64StringToBlocks(content, modulus);
+                            System.out.println("DEBUG: Anzahl der wiederhergestellten Blöcke: " + recoveredBlocks.size());
+                            for (int i = 0; i < recoveredBlocks.size(); i++) {
+                                System.out.println("DEBUG: Wiederhergestellter Block " + i + ": " + recoveredBlocks.get(i));
+                            }
+                            RSAResult recoveredResult = new RSAResult(recoveredBlocks);
+                            // Für die Entschlüsselung von Nachrichten, die von Alice an Bob gesendet wurden,
+                            // wird in decrypt() das Flag false übergeben (Bobs privater Schlüssel wird genutzt).
+                            decrypted = decrypt(recoveredResult, false);
+                        }
                         long decryptionTime = System.currentTimeMillis() - startDecrypt;
                         System.out.println("DEBUG: Entschlüsselungszeit: " + decryptionTime + " ms");
                         outputArea.setText(decrypted);
@@ -68,6 +74,8 @@ public class BobDecryptionGUI extends RSAUTF8 {
                     } catch (IOException ex) {
                         JOptionPane.showMessageDialog(frame, "Fehler beim Lesen der Datei: " + ex.getMessage());
                         System.out.println("DEBUG: Fehler beim Lesen der Datei: " + ex.getMessage());
+                    } catch (IllegalArgumentException ex) {
+                        JOptionPane.showMessageDialog(frame, "Ungültiges Chiffrat: " + ex.getMessage());
                     }
                 }
             } else {
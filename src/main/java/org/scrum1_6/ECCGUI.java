@@ -2,6 +2,7 @@ package org.scrum1_6;
 
 import org.ellipticCurveFinal.ECCApi;
 import org.ellipticCurveFinal.ECCSignature;
+import org.scrum1_1.PrimPool;
 
 import javax.swing.*;
 import java.awt.*;
@@ -30,6 +31,8 @@ public class ECCGUI {
     public ECCGUI() {
         //Standardwerte
         api = ECCApi.getInstance(256, 20);
+        // neue Domain-Parameter aus dem Vorrat, der im Hintergrund nachgefüllt wird
+        api.setPrimPool(PrimPool.getStandard());
 
         JFrame frame = new JFrame("ECC-Verschlüsselung");
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -66,6 +69,11 @@ public class ECCGUI {
         JButton verifyButton = createButton("Verify", e -> verify());
         paramPanel.add(verifyButton);
 
+        JCheckBox hybridBox = new JCheckBox("Hybrid (AES-GCM)", api.isHybrid());
+        hybridBox.setBackground(Color.LIGHT_GRAY);
+        hybridBox.addActionListener(e -> api.setHybrid(hybridBox.isSelected()));
+        paramPanel.add(hybridBox);
+
         // Ganz oben ins mainPanel einfügen
         mainPanel.add(paramPanel);
 
@@ -212,8 +220,12 @@ public class ECCGUI {
 
     private void decryptECC() {
         long start = System.currentTimeMillis();
-        String entschlüsselt = api.decrypt(outputArea.getText().replace("[Verschlüsselt] ", ""));
-        decryptedArea.setText(entschlüsselt);
+        try {
+            String entschlüsselt = api.decrypt(outputArea.getText().replace("[Verschlüsselt] ", ""));
+            decryptedArea.setText(entschlüsselt);
+        } catch (IllegalArgumentException e) {
+            decryptedArea.setText("Ungültiges Chiffrat: " + e.getMessage());
+        }
         durationLabel.setText("Dauer: " + (System.currentTimeMillis() - start) + " ms");
     }
 
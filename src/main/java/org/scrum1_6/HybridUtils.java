@@ -0,0 +1,76 @@
+package org.scrum1_6;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Gemeinsame Teile der Hybridverfahren RSAUTF8.encryptHybrid und ECCHybridCipher: die AES-GCM-Verschlüsselung
+ * und die Textform der Chiffrate (Kennung mit Version, dann ':' und das Chiffrat in Base64, z.B. "RSH1:...").
+ *
+ * ':' gehört nicht zum Base64-Alphabet, ein Chiffrat im Block- bzw. Tupelformat
+ * (reines Base64) kann also nie mit einer Kennung beginnen.
+ */
+public class HybridUtils {
+
+    private static final char TRENNER = ':';
+
+    /** Länge des AES-GCM-Tags in Bit. */
+    public static final int TAG_BITS = 128;
+
+    private HybridUtils() {
+    }
+
+    /**
+     * @param kennung z.B. "RSH1" (Verfahren und Version)
+     * @return kennung + ":" + Base64(chiffrat)
+     */
+    public static String mitKennung(String kennung, byte[] chiffrat) {
+        return kennung + TRENNER + Base64.getEncoder().encodeToString(chiffrat);
+    }
+
+    /**
+     * true, falls der Text (ohne umgebende Leerzeichen) mit kennung + ":" beginnt.
+     */
+    public static boolean hatKennung(String text, String kennung) {
+        String t = text.trim();
+        return t.length() > kennung.length() && t.startsWith(kennung) && t.charAt(kennung.length()) == TRENNER;
+    }
+
+    /**
+     * Entfernt die Kennung und dekodiert das Base64-Chiffrat.
+     *
+     * @throws IllegalArgumentException falls die Kennung fehlt oder der Rest kein Base64 ist
+     */
+    public static byte[] ohneKennung(String text, String kennung) {
+        if (!hatKennung(text, kennung)) {
+            throw new IllegalArgumentException("Kein Hybrid-Chiffrat (Kennung " + kennung + " fehlt).");
+        }
+        return Base64.getMimeDecoder().decode(text.trim().substring(kennung.length() + 1));
+    }
+
+    /**
+     * AES-GCM mit dem Kopf des Chiffrats als Associated Data. Der Schlüssel wird danach mit Nullen überschrieben.
+     *
+     * @param modus Cipher.ENCRYPT_MODE oder Cipher.DECRYPT_MODE
+     * @throws IllegalArgumentException falls beim Entschlüsseln das Tag nicht passt
+     */
+    public static byte[] aesGcm(int modus, byte[] schluessel, byte[] iv, byte[] aad, byte[] eingabe) {
+        try {
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(modus, new SecretKeySpec(schluessel, "AES"), new GCMParameterSpec(TAG_BITS, iv));
+            cipher.updateAAD(aad);
+            return cipher.doFinal(eingabe);
+        } catch (AEADBadTagException e) {
+            throw new IllegalArgumentException("Authentifizierung fehlgeschlagen: falscher Schlüssel oder verändertes Chiffrat.", e);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES-GCM nicht verfügbar", e);
+        } finally {
+            Arrays.fill(schluessel, (byte) 0);
+        }
+    }
+}
@@ -26,6 +26,8 @@ public class RSABenchmark {
 
         // Erzeuge eine Instanz der RSAUTF8-Klasse (Schlüssel werden intern geladen)
         RSAUTF8 rsa = new RSAUTF8(2047);
+        // Mit "--parallel" werden die Blöcke über den ForkJoinPool verteilt
+        rsa.setParallel(args.length > 0 && args[0].equals("--parallel"));
 
         // Wir messen hier, wie lange es dauert, den Testtext zu verschlüsseln und wieder zu entschlüsseln.
         // In diesem Beispiel verschlüsselt Bob eine Nachricht für Alice:
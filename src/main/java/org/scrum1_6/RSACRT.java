@@ -0,0 +1,133 @@
+package org.scrum1_6;
+
+import org.scrum1_3.MontgomeryKontext;
+
+import java.io.*;
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+/**
+ * Privater RSA-Schlüssel in CRT-Darstellung (p, q, d mod p-1, d mod q-1, q^(-1) mod p).
+ * Statt einer Exponentiation mit d modulo n werden zwei halb so große Exponentiationen
+ * modulo p und q gerechnet und mit der Formel von Garner zusammengesetzt (etwa 3-4x schneller).
+ */
+public class RSACRT {
+
+    private static final SecureRandom random = new SecureRandom();
+
+    public final BigInteger p;
+    public final BigInteger q;
+    public final BigInteger dP;
+    public final BigInteger dQ;
+    public final BigInteger qInv;
+
+    private final BigInteger n;
+    private final MontgomeryKontext kontextP;
+    private final MontgomeryKontext kontextQ;
+
+    /**
+     * Berechnet die CRT-Komponenten aus den Primfaktoren und dem privaten Exponenten.
+     */
+    public RSACRT(BigInteger p, BigInteger q, BigInteger d) {
+        this(p, q,
+                d.mod(p.subtract(BigInteger.ONE)),
+                d.mod(q.subtract(BigInteger.ONE)),
+                q.modInverse(p));
+    }
+
+    public RSACRT(BigInteger p, BigInteger q, BigInteger dP, BigInteger dQ, BigInteger qInv) {
+        this.p = p;
+        this.q = q;
+        this.dP = dP;
+        this.dQ = dQ;
+        this.qInv = qInv;
+        this.n = p.multiply(q);
+        this.kontextP = new MontgomeryKontext(p);
+        this.kontextQ = new MontgomeryKontext(q);
+    }
+
+    public BigInteger getModulus() {
+        return n;
+    }
+
+    /**
+     * Berechnet c^d mod n über den chinesischen Restsatz.
+     * @param c Chiffratblock bzw. zu signierender Wert
+     * @return c^d mod n
+     */
+    public BigInteger potenz(BigInteger c) {
+        // m1 = c^dP mod p, m2 = c^dQ mod q
+        BigInteger m1 = kontextP.schiebefensterExponentiation(c, dP);
+        BigInteger m2 = kontextQ.schiebefensterExponentiation(c, dQ);
+        // Garner: h = qInv * (m1 - m2) mod p, m = m2 + h * q
+        BigInteger h = qInv.multiply(m1.subtract(m2)).mod(p);
+        return m2.add(h.multiply(q));
+    }
+
+    /**
+     * Speichert p, q, dP, dQ und qInv zeilenweise in einer Datei.
+     */
+    public void speichern(String dateiname) throws IOException {
+        try (PrintWriter out = new PrintWriter(new FileWriter(dateiname))) {
+            out.println(p);
+            out.println(q);
+            out.println(dP);
+            out.println(dQ);
+            out.println(qInv);
+        }
+    }
+
+    /**
+     * Lädt die CRT-Komponenten aus einer mit speichern() geschriebenen Datei.
+     */
+    public static RSACRT laden(String dateiname) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new FileReader(dateiname))) {
+            BigInteger p = new BigInteger(reader.readLine().trim());
+            BigInteger q = new BigInteger(reader.readLine().trim());
+            BigInteger dP = new BigInteger(reader.readLine().trim());
+            BigInteger dQ = new BigInteger(reader.readLine().trim());
+            BigInteger qInv = new BigInteger(reader.readLine().trim());
+            return new RSACRT(p, q, dP, dQ, qInv);
+        }
+    }
+
+    /**
+     * Dateiname der CRT-Datei zu einer Schlüsseldatei für d, z.B. rsa_d.txt → rsa_d_crt.txt.
+     */
+    public static String crtDateiname(String dFile) {
+        int punkt = dFile.lastIndexOf('.');
+        return punkt < 0 ? dFile + "_crt" : dFile.substring(0, punkt) + "_crt" + dFile.substring(punkt);
+    }
+
+    /**
+     * Rekonstruiert p und q aus (n, e, d), z.B. für ältere Schlüsseldateien ohne CRT-Datei.
+     * Es wird e·d - 1 = 2^t·r zerlegt und für zufällige g eine nichttriviale Wurzel der 1
+     * modulo n gesucht; ggT(y - 1, n) liefert dann einen Primfaktor.
+     * @return CRT-Schlüssel oder null, falls keine Zerlegung gefunden wurde
+     */
+    public static RSACRT ausSchluessel(BigInteger n, BigInteger e, BigInteger d) {
+        BigInteger k = e.multiply(d).subtract(BigInteger.ONE);
+        int t = k.getLowestSetBit();
+        BigInteger r = k.shiftRight(t);
+        BigInteger nMinusEins = n.subtract(BigInteger.ONE);
+        MontgomeryKontext kontext = new MontgomeryKontext(n);
+
+        for (int versuch = 0; versuch < 100; versuch++) {
+            BigInteger g = new BigInteger(n.bitLength(), random).mod(n);
+            if (g.compareTo(BigInteger.TWO) < 0) continue;
+            BigInteger y = kontext.schiebefensterExponentiation(g, r);
+            for (int i = 0; i < t; i++) {
+                if (y.equals(BigInteger.ONE) || y.equals(nMinusEins)) break;
+                BigInteger z = kontext.multipliziere(y, y);
+                if (z.equals(BigInteger.ONE)) {
+                    // y ist eine nichttriviale Wurzel der 1
+                    BigInteger p = y.subtract(BigInteger.ONE).gcd(n);
+                    BigInteger q = n.divide(p);
+                    return new RSACRT(p, q, d);
+                }
+                y = z;
+            }
+        }
+        return null;
+    }
+}
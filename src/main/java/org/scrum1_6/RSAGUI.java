@@ -1,5 +1,7 @@
 package org.scrum1_6;
 
+import org.scrum1_1.PrimPool;
+
 import javax.swing.*;
 import java.awt.*;
 import java.awt.datatransfer.Clipboard;
@@ -20,6 +22,7 @@ public class RSAGUI extends RSAUTF8 {
     private final JTextArea signatureArea;
     private BigInteger friendPubKey;
     private BigInteger friendModulus;
+    private JCheckBox hybridBox;
 
     private final JSpinner spinnerKeyLength;
     private final JSpinner spinnerMRIterations;
@@ -28,6 +31,9 @@ public class RSAGUI extends RSAUTF8 {
 
     public RSAGUI() {
         super(1024);  // Lädt (wenn vorhanden) bestehende Schlüssel
+        // p und q aus dem Vorrat, der im Hintergrund nachgefüllt wird (weitere Bitlängen bei Bedarf)
+        RSAUtils.setPrimPool(PrimPool.getStandard());
+        RSAUtils.setPoolGroesse(1024, 2);
 
         // -----------------------------------------------
         // Ganz zu Beginn des Konstruktors initialisieren:
@@ -142,6 +148,8 @@ public class RSAGUI extends RSAUTF8 {
         inputArea = createTextArea();
         JButton btnEncrypt = createButton("Verschlüsseln (Alice→Bob)", e -> encryptMessage());
         mainPanel.add(createRow("Klartext:", inputArea, btnEncrypt));
+        hybridBox = new JCheckBox("Hybrid (RSA-Schlüssel + AES-GCM)");
+        mainPanel.add(hybridBox);
 
         // 4) Chiffrat (Base64) + „Chiffrat speichern“
         outputArea = createTextArea();
@@ -295,12 +303,18 @@ public class RSAGUI extends RSAUTF8 {
             JOptionPane.showMessageDialog(null, "Bitte geben Sie einen Klartext ein.");
             return;
         }
-        // Verschlüsseln mit Bob's Key (oder gefallest friendKey)
-        RSAResult result = encrypt(message, true);
         BigInteger usedModulus = (friendPubKey != null && friendModulus != null)
                 ? friendModulus
                 : RSAUtils.getBobModulus();
-        String base64String = blocksToBase64String(result.blocks, usedModulus);
+        String base64String;
+        if (hybridBox.isSelected()) {
+            // Nur der Sitzungsschlüssel wird mit RSA verschlüsselt, der Text mit AES-GCM
+            base64String = encryptHybrid(message, true);
+        } else {
+            // Verschlüsseln mit Bob's Key (oder gefallest friendKey)
+            RSAResult result = encrypt(message, true);
+            base64String = blocksToBase64String(result.blocks, usedModulus);
+        }
         outputArea.setText(base64String);
 
         // Zeige kurz die Bitlänge des verwendeten Modulus
@@ -1,20 +1,50 @@
 package org.scrum1_6;
 
-import org.scrum1_3.schnelleExponentiation;
+import org.scrum1_3.MontgomeryKontext;
 
+import javax.crypto.Cipher;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.UnaryOperator;
+
+import static org.scrum1_6.BlockStromUtils.nichtSchliessend;
+import static org.scrum1_6.BlockStromUtils.schreibeFesteLaenge;
 
 public class RSAUTF8 {
 
+    /** Ab dieser Blockanzahl lohnt sich die Verteilung auf mehrere Threads. */
+    public static final int PARALLEL_SCHWELLE = 4;
+
+    /** Version des Hybridformats (siehe encryptHybrid). */
+    public static final byte HYBRID_VERSION = 1;
+    /** Kennung der Textform (siehe HybridUtils), z.B. in .cir-Dateien. */
+    public static final String HYBRID_KENNUNG = "RSH" + HYBRID_VERSION;
+    private static final byte[] HYBRID_MAGIC = {'R', 'S', 'H'};
+    private static final int HYBRID_IV_LAENGE = 12;
+    private static final SecureRandom HYBRID_ZUFALL = new SecureRandom();
+
     private BigInteger friendPubKey;
-    private BigInteger friendModulus;
+    private MontgomeryKontext friendKontext;  // Kontext zum Modulus des Partners, in setPublicKey angelegt
+
+    // Paralleler Modus (opt-in): null = alle Blöcke sequentiell im aufrufenden Thread
+    private ExecutorService executor;
+    private int parallelSchwelle = PARALLEL_SCHWELLE;
 
     public static class RSAResult {
         public final List<BigInteger> blocks;
@@ -39,6 +69,8 @@ public class RSAUTF8 {
         int blex = val.bitLength() - 512;
         if (blex > 0) {
             val = val.shiftRight(blex);
+        } else {
+            blex = 0;  // kleine Werte passen ohne Verschiebung in einen double
         }
         double result = Math.log(val.doubleValue());
         return result + blex * Math.log(2);
@@ -162,20 +194,20 @@ public class RSAUTF8 {
      */
     public RSAResult encrypt(String message, boolean fromAlice) {
         BigInteger pubKey, modulus;
+        MontgomeryKontext kontext;
         if (fromAlice) {
             pubKey = RSAUtils.getBobPublicKey();
             modulus = RSAUtils.getBobModulus();
+            kontext = RSAUtils.getBobKontext();
         } else {
             pubKey = RSAUtils.getAlicePublicKey();
             modulus = RSAUtils.getAliceModulus();
+            kontext = RSAUtils.getAliceKontext();
         }
         List<BigInteger> blocks = textToBigIntegerBlocks(message, modulus);
-        List<BigInteger> encryptedBlocks = new ArrayList<>();
         long startTime = System.currentTimeMillis();
-        for (BigInteger block : blocks) {
-            BigInteger cipherBlock = schnelleExponentiation.schnelleExponentiation(block, pubKey, modulus);
-            encryptedBlocks.add(cipherBlock);
-        }
+        List<BigInteger> encryptedBlocks = verarbeiteBloecke(blocks,
+                block -> kontext.schiebefensterExponentiation(block, pubKey));
         long encryptionTime = System.currentTimeMillis() - startTime;
         System.out.println("Verschlüsselungszeit: " + encryptionTime + " ms");
         return new RSAResult(encryptedBlocks);
@@ -183,19 +215,28 @@ public class RSAUTF8 {
 
     public String decrypt(RSAResult result, boolean toAlice) {
         BigInteger privKey, modulus;
+        RSACRT crt;
+        MontgomeryKontext kontext;
         if (toAlice) {
             privKey = RSAUtils.getAlicePrivateKey();
             modulus = RSAUtils.getAliceModulus();
+            crt = RSAUtils.getAliceCRT();
+            kontext = RSAUtils.getAliceKontext();
         } else {
             privKey = RSAUtils.getBobPrivateKey();
             modulus = RSAUtils.getBobModulus();
+            crt = RSAUtils.getBobCRT();
+            kontext = RSAUtils.getBobKontext();
         }
 
-        List<BigInteger> decryptedBlocks = new ArrayList<>();
+        List<BigInteger> decryptedBlocks;
         long startTime = System.currentTimeMillis();
-        for (BigInteger block : result.blocks) {
-            BigInteger plainBlock = schnelleExponentiation.schnelleExponentiation(block, privKey, modulus);
-            decryptedBlocks.add(plainBlock);
+        if (crt != null) {
+            // zwei halb so große Exponentiationen pro Block (CRT)
+            decryptedBlocks = verarbeiteBloecke(result.blocks, crt::potenz);
+        } else {
+            decryptedBlocks = verarbeiteBloecke(result.blocks,
+                    block -> kontext.schiebefensterExponentiation(block, privKey));
         }
         System.out.println("verwendeter modulus: " + modulus);
         long decryptionTime = System.currentTimeMillis() - startTime;
@@ -206,9 +247,319 @@ public class RSAUTF8 {
         return new String(allBytes, StandardCharsets.UTF_8).trim();
     }
 
+    /**
+     * Verschlüsselt einen Datenstrom blockweise mit dem Schlüssel des Empfängers
+     * (Auswahl wie bei encrypt(String, boolean)). Siehe encryptStream.
+     */
+    public void encrypt(InputStream in, OutputStream out, boolean fromAlice, boolean base64) throws IOException {
+        if (fromAlice) {
+            encryptStream(in, out, RSAUtils.getBobPublicKey(), RSAUtils.getBobKontext(), base64);
+        } else {
+            encryptStream(in, out, RSAUtils.getAlicePublicKey(), RSAUtils.getAliceKontext(), base64);
+        }
+    }
+
+    /**
+     * Entschlüsselt einen Datenstrom blockweise mit dem eigenen privaten Schlüssel
+     * (Auswahl wie bei decrypt(RSAResult, boolean), mit CRT falls verfügbar).
+     */
+    public void decrypt(InputStream in, OutputStream out, boolean toAlice, boolean base64) throws IOException {
+        BigInteger privKey = toAlice ? RSAUtils.getAlicePrivateKey() : RSAUtils.getBobPrivateKey();
+        MontgomeryKontext kontext = toAlice ? RSAUtils.getAliceKontext() : RSAUtils.getBobKontext();
+        RSACRT crt = toAlice ? RSAUtils.getAliceCRT() : RSAUtils.getBobCRT();
+        if (crt != null) {
+            decryptStream(in, out, kontext.getModulus(), crt::potenz, base64);
+        } else {
+            decryptStream(in, out, privKey, kontext, base64);
+        }
+    }
+
+    /**
+     * Verschlüsselt einen Datenstrom mit konstantem Speicherbedarf: Es werden jeweils
+     * getEncryptionBlockSize(modulus) Bytes gelesen, der letzte Block wird wie bei
+     * zeroPadData mit Nullen aufgefüllt, und jeder Chiffratblock wird sofort mit der festen
+     * Breite getDecryptionBlockSize(modulus) geschrieben. Mit base64 = true entspricht die
+     * Ausgabe genau blocksToBase64String(...) der String-Variante.
+     * Der Ausgabestrom wird nicht geschlossen.
+     */
+    public static void encryptStream(InputStream in, OutputStream out, BigInteger pubKey, BigInteger modulus,
+                                     boolean base64) throws IOException {
+        encryptStream(in, out, pubKey, new MontgomeryKontext(modulus), base64);
+    }
+
+    /**
+     * Wie encryptStream(..., BigInteger modulus, ...) mit dem bereits angelegten Kontext des Modulus.
+     */
+    public static void encryptStream(InputStream in, OutputStream out, BigInteger pubKey, MontgomeryKontext kontext,
+                                     boolean base64) throws IOException {
+        BigInteger modulus = kontext.getModulus();
+        int blockSize = getEncryptionBlockSize(modulus);
+        int cipherBlockSize = getDecryptionBlockSize(modulus);
+        OutputStream ziel = base64 ? Base64.getEncoder().wrap(nichtSchliessend(out)) : out;
+
+        byte[] klarBlock = new byte[blockSize];
+        byte[] chiffratBlock = new byte[cipherBlockSize];
+        int gelesen;
+        while ((gelesen = in.readNBytes(klarBlock, 0, blockSize)) > 0) {
+            if (gelesen < blockSize) {
+                Arrays.fill(klarBlock, gelesen, blockSize, (byte) 0);  // Zero-Padding des letzten Blocks
+            }
+            BigInteger c = kontext.schiebefensterExponentiation(new BigInteger(1, klarBlock), pubKey);
+            schreibeFesteLaenge(c, chiffratBlock, 0, cipherBlockSize);
+            ziel.write(chiffratBlock);
+            if (gelesen < blockSize) {
+                break;
+            }
+        }
+        if (base64) {
+            ziel.close(); // schreibt das Base64-Ende, der eigentliche Strom bleibt offen
+        } else {
+            ziel.flush();
+        }
+    }
+
+    /**
+     * Entschlüsselt einen mit encryptStream erzeugten Datenstrom mit dem privaten Exponenten d.
+     * Der Ausgabestrom wird nicht geschlossen.
+     */
+    public static void decryptStream(InputStream in, OutputStream out, BigInteger privKey, BigInteger modulus,
+                                     boolean base64) throws IOException {
+        decryptStream(in, out, privKey, new MontgomeryKontext(modulus), base64);
+    }
+
+    /**
+     * Wie decryptStream(..., BigInteger modulus, ...) mit dem bereits angelegten Kontext des Modulus.
+     */
+    public static void decryptStream(InputStream in, OutputStream out, BigInteger privKey, MontgomeryKontext kontext,
+                                     boolean base64) throws IOException {
+        decryptStream(in, out, kontext.getModulus(), block -> kontext.schiebefensterExponentiation(block, privKey), base64);
+    }
+
+    /**
+     * Entschlüsselt blockweise mit konstantem Speicherbedarf; nur das Padding am Ende wird entfernt
+     * (siehe BlockStromUtils.OhnePadding).
+     */
+    private static void decryptStream(InputStream in, OutputStream out, BigInteger modulus,
+                                      UnaryOperator<BigInteger> operation, boolean base64) throws IOException {
+        int blockSize = getEncryptionBlockSize(modulus);
+        int cipherBlockSize = getDecryptionBlockSize(modulus);
+        InputStream quelle = base64 ? Base64.getMimeDecoder().wrap(in) : in;
+
+        byte[] chiffratBlock = new byte[cipherBlockSize];
+        byte[] klarBlock = new byte[blockSize];
+        BlockStromUtils.OhnePadding klartext = new BlockStromUtils.OhnePadding(out, blockSize);
+        int gelesen;
+        while ((gelesen = quelle.readNBytes(chiffratBlock, 0, cipherBlockSize)) > 0) {
+            if (gelesen < cipherBlockSize) {
+                throw new IOException("Unvollständiger Chiffratblock (" + gelesen + " von " + cipherBlockSize + " Bytes)");
+            }
+            schreibeFesteLaenge(operation.apply(new BigInteger(1, chiffratBlock)), klarBlock, 0, blockSize);
+            klartext.schreibe(klarBlock, blockSize);
+        }
+        out.flush();
+    }
+
+    /**
+     * Hybridmodus (RSA-KEM): Statt jeden Block mit RSA zu potenzieren, wird nur eine Zufallszahl r
+     * mit dem öffentlichen Schlüssel des Empfängers verschlüsselt (c = r^e mod n). Der AES-Schlüssel
+     * ist SHA-256(r), der Text wird mit AES-GCM verschlüsselt. Die Entschlüsselung kostet damit
+     * unabhängig von der Nachrichtenlänge genau eine RSA-Operation.
+     *
+     * Verwendet wird der Partnerschlüssel aus setPublicKey, sonst derselbe Schlüssel wie bei
+     * encrypt(String, boolean). Ergebnis ist "RSH1:" + Base64 (Format siehe encryptHybrid(byte[], ...)),
+     * sodass isHybrid(String) es sicher vom Blockformat unterscheidet.
+     */
+    public String encryptHybrid(String message, boolean fromAlice) {
+        BigInteger pubKey;
+        MontgomeryKontext kontext;
+        if (friendPubKey != null && friendKontext != null) {
+            pubKey = friendPubKey;
+            kontext = friendKontext;
+        } else if (fromAlice) {
+            pubKey = RSAUtils.getBobPublicKey();
+            kontext = RSAUtils.getBobKontext();
+        } else {
+            pubKey = RSAUtils.getAlicePublicKey();
+            kontext = RSAUtils.getAliceKontext();
+        }
+        byte[] chiffrat = encryptHybrid(message.getBytes(StandardCharsets.UTF_8), pubKey, kontext);
+        return HybridUtils.mitKennung(HYBRID_KENNUNG, chiffrat);
+    }
+
+    /**
+     * Entschlüsselt ein mit encryptHybrid(String, boolean) erzeugtes Chiffrat mit dem eigenen privaten
+     * Schlüssel, mit CRT falls verfügbar.
+     *
+     * @throws IllegalArgumentException bei fehlender Kennung, unbekanntem Format oder wenn die
+     *                                  Authentifizierung fehlschlägt
+     */
+    public String decryptHybrid(String text, boolean toAlice) {
+        BigInteger privKey = toAlice ? RSAUtils.getAlicePrivateKey() : RSAUtils.getBobPrivateKey();
+        MontgomeryKontext kontext = toAlice ? RSAUtils.getAliceKontext() : RSAUtils.getBobKontext();
+        RSACRT crt = toAlice ? RSAUtils.getAliceCRT() : RSAUtils.getBobCRT();
+        byte[] daten = HybridUtils.ohneKennung(text, HYBRID_KENNUNG);
+        byte[] klartext;
+        if (crt != null) {
+            klartext = decryptHybrid(daten, kontext.getModulus(), crt::potenz);
+        } else {
+            klartext = decryptHybrid(daten, privKey, kontext);
+        }
+        return new String(klartext, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Format: "RSH" | Version (1 Byte) | c = r^e mod n (Bytelänge von n) | IV (12 Bytes) | AES-GCM-Chiffrat mit Tag.
+     * Der Kopf bis einschließlich IV ist als Associated Data authentifiziert.
+     */
+    public static byte[] encryptHybrid(byte[] klartext, BigInteger pubKey, BigInteger modulus) {
+        return encryptHybrid(klartext, pubKey, new MontgomeryKontext(modulus));
+    }
+
+    /**
+     * Wie encryptHybrid(byte[], BigInteger, BigInteger modulus) mit dem bereits angelegten Kontext des Modulus.
+     */
+    public static byte[] encryptHybrid(byte[] klartext, BigInteger pubKey, MontgomeryKontext kontext) {
+        BigInteger modulus = kontext.getModulus();
+        int laenge = (modulus.bitLength() + 7) / 8;
+        BigInteger r;
+        do {
+            r = new BigInteger(modulus.bitLength(), HYBRID_ZUFALL);
+        } while (r.compareTo(BigInteger.TWO) < 0 || r.compareTo(modulus) >= 0);
+        BigInteger c = kontext.schiebefensterExponentiation(r, pubKey);
+
+        byte[] kopf = new byte[HYBRID_MAGIC.length + 1 + laenge + HYBRID_IV_LAENGE];
+        System.arraycopy(HYBRID_MAGIC, 0, kopf, 0, HYBRID_MAGIC.length);
+        kopf[HYBRID_MAGIC.length] = HYBRID_VERSION;
+        byte[] cBytes = new byte[laenge];
+        schreibeFesteLaenge(c, cBytes, 0, cBytes.length);
+        System.arraycopy(cBytes, 0, kopf, HYBRID_MAGIC.length + 1, laenge);
+        byte[] iv = new byte[HYBRID_IV_LAENGE];
+        HYBRID_ZUFALL.nextBytes(iv);
+        System.arraycopy(iv, 0, kopf, kopf.length - HYBRID_IV_LAENGE, HYBRID_IV_LAENGE);
+
+        byte[] chiffrat = HybridUtils.aesGcm(Cipher.ENCRYPT_MODE, sitzungsSchluessel(r, laenge), iv, kopf, klartext);
+        byte[] ergebnis = Arrays.copyOf(kopf, kopf.length + chiffrat.length);
+        System.arraycopy(chiffrat, 0, ergebnis, kopf.length, chiffrat.length);
+        return ergebnis;
+    }
+
+    /**
+     * Entschlüsselt ein mit encryptHybrid erzeugtes Chiffrat mit dem privaten Exponenten d.
+     */
+    public static byte[] decryptHybrid(byte[] daten, BigInteger privKey, BigInteger modulus) {
+        return decryptHybrid(daten, privKey, new MontgomeryKontext(modulus));
+    }
+
+    /**
+     * Wie decryptHybrid(byte[], BigInteger, BigInteger modulus) mit dem bereits angelegten Kontext des Modulus.
+     */
+    public static byte[] decryptHybrid(byte[] daten, BigInteger privKey, MontgomeryKontext kontext) {
+        return decryptHybrid(daten, kontext.getModulus(), c -> kontext.schiebefensterExponentiation(c, privKey));
+    }
+
+    private static byte[] decryptHybrid(byte[] daten, BigInteger modulus, UnaryOperator<BigInteger> operation) {
+        int laenge = (modulus.bitLength() + 7) / 8;
+        int kopfLaenge = HYBRID_MAGIC.length + 1 + laenge + HYBRID_IV_LAENGE;
+        if (daten.length < kopfLaenge + HybridUtils.TAG_BITS / 8
+                || !Arrays.equals(daten, 0, HYBRID_MAGIC.length, HYBRID_MAGIC, 0, HYBRID_MAGIC.length)) {
+            throw new IllegalArgumentException("Kein Hybrid-Chiffrat für diesen Schlüssel.");
+        }
+        if (daten[HYBRID_MAGIC.length] != HYBRID_VERSION) {
+            throw new IllegalArgumentException("Nicht unterstützte Version " + daten[HYBRID_MAGIC.length] + ".");
+        }
+        BigInteger c = new BigInteger(1, daten, HYBRID_MAGIC.length + 1, laenge);
+        if (c.compareTo(modulus) >= 0) {
+            throw new IllegalArgumentException("Ungültiger Schlüsselblock.");
+        }
+        BigInteger r = operation.apply(c);
+
+        byte[] kopf = Arrays.copyOf(daten, kopfLaenge);
+        byte[] iv = Arrays.copyOfRange(daten, kopfLaenge - HYBRID_IV_LAENGE, kopfLaenge);
+        byte[] chiffrat = Arrays.copyOfRange(daten, kopfLaenge, daten.length);
+        return HybridUtils.aesGcm(Cipher.DECRYPT_MODE, sitzungsSchluessel(r, laenge), iv, kopf, chiffrat);
+    }
+
+    /**
+     * true, falls der Text (z.B. der Inhalt einer .cir-Datei) die Kennung "RSH1:" trägt;
+     * so können die GUIs zwischen Block- und Hybridformat unterscheiden.
+     */
+    public static boolean isHybrid(String text) {
+        return HybridUtils.hatKennung(text, HYBRID_KENNUNG);
+    }
+
+    /** AES-256-Schlüssel = SHA-256(r mit fester Länge) */
+    private static byte[] sitzungsSchluessel(BigInteger r, int laenge) {
+        byte[] rBytes = new byte[laenge];
+        schreibeFesteLaenge(r, rBytes, 0, rBytes.length);
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(rBytes);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 nicht verfügbar", e);
+        } finally {
+            Arrays.fill(rBytes, (byte) 0);
+        }
+    }
+
+    /**
+     * Schaltet den parallelen Modus ein (ForkJoinPool.commonPool()) oder aus.
+     */
+    public void setParallel(boolean parallel) {
+        this.executor = parallel ? ForkJoinPool.commonPool() : null;
+    }
+
+    /**
+     * Setzt einen eigenen Executor für die Blockverarbeitung (null = sequentiell).
+     * Der Executor wird von RSAUTF8 nicht heruntergefahren.
+     */
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Minimale Anzahl an Blöcken, ab der parallel gerechnet wird; kürzere Nachrichten
+     * bleiben sequentiell, da sich der Verteilungsaufwand dort nicht lohnt.
+     */
+    public void setParallelSchwelle(int bloecke) {
+        if (bloecke < 1) {
+            throw new IllegalArgumentException("Die Schwelle muss ≥ 1 sein.");
+        }
+        this.parallelSchwelle = bloecke;
+    }
+
+    /**
+     * Wendet die Operation (eine modulare Exponentiation) auf jeden Block an.
+     * Im parallelen Modus wird jeder Block als eigene Aufgabe abgegeben; die Ergebnisse
+     * werden in der Reihenfolge der Eingabe eingesammelt, die Ausgabe ist also deterministisch.
+     */
+    List<BigInteger> verarbeiteBloecke(List<BigInteger> blocks, UnaryOperator<BigInteger> operation) {
+        List<BigInteger> ergebnis = new ArrayList<>(blocks.size());
+        if (executor == null || blocks.size() < parallelSchwelle) {
+            for (BigInteger block : blocks) {
+                ergebnis.add(operation.apply(block));
+            }
+            return ergebnis;
+        }
+
+        List<Callable<BigInteger>> aufgaben = new ArrayList<>(blocks.size());
+        for (BigInteger block : blocks) {
+            aufgaben.add(() -> operation.apply(block));
+        }
+        try {
+            for (Future<BigInteger> future : executor.invokeAll(aufgaben)) {
+                ergebnis.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Blockverarbeitung wurde unterbrochen", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Fehler bei der Blockverarbeitung", e.getCause());
+        }
+        return ergebnis;
+    }
+
     public void setPublicKey(BigInteger modulus, BigInteger pubKey) {
         this.friendPubKey = pubKey;
-        this.friendModulus = modulus;
+        this.friendKontext = modulus == null ? null : new MontgomeryKontext(modulus);
         if (pubKey == null || modulus == null) {
             System.out.println("Partner-Schlüssel zurückgesetzt. Es wird Bobs Schlüssel verwendet.");
         } else {
@@ -1,6 +1,8 @@
 package org.scrum1_6;
 
 import org.scrum1_1.PrimGenerator;
+import org.scrum1_1.PrimPool;
+import org.scrum1_3.MontgomeryKontext;
 import org.scrum1_3.schnelleExponentiation;
 import org.scrum1_4.erweiterterEuklid;
 
@@ -10,6 +12,7 @@ import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.util.concurrent.ForkJoinPool;
 
 
 public class RSAUtils {
@@ -29,6 +32,51 @@ public class RSAUtils {
     private static BigInteger eAlice, nAlice, dAlice;
     private static BigInteger eBob, nBob, dBob;
 
+    // CRT-Darstellung der privaten Schlüssel (null, falls nicht verfügbar)
+    private static RSACRT crtAlice, crtBob;
+    // Montgomery-Kontexte zu nAlice und nBob, einmal beim Laden der Schlüssel angelegt
+    private static MontgomeryKontext kontextAlice, kontextBob;
+
+    // Vorrat an (p, q)-Paaren je Bitlänge (opt-in): null = p und q werden bei Bedarf gesucht
+    private static PrimPool primPool;
+    private static final int DEFAULT_POOL_GROESSE = 2;
+
+    /**
+     * Bezieht p und q künftig aus dem Pool (Art "rsa-" + Bitlänge); null schaltet ihn ab.
+     * Bitlängen, die noch nicht registriert sind, werden beim ersten Bedarf mit
+     * DEFAULT_POOL_GROESSE Paaren registriert.
+     */
+    public static void setPrimPool(PrimPool pool) {
+        primPool = pool;
+    }
+
+    /**
+     * Legt fest, wie viele (p, q)-Paare für die Bitlänge im Pool vorgehalten werden.
+     */
+    public static void setPoolGroesse(int bitLength, int anzahl) {
+        if (primPool == null) {
+            throw new IllegalStateException("Es ist kein PrimPool gesetzt.");
+        }
+        registrierePoolArt(primPool, bitLength, anzahl);
+    }
+
+    private static String poolArt(int bitLength) {
+        return "rsa-" + bitLength;
+    }
+
+    private static void registrierePoolArt(PrimPool pool, int bitLength, int anzahl) {
+        BigInteger[] grenzen = primGrenzen(bitLength);
+        // im Hintergrund sequentiell, damit der Pool den Anwendungsthreads keine Kerne wegnimmt
+        pool.registriere(poolArt(bitLength), anzahl, () ->
+                PrimGenerator.generateRandomPrimes(grenzen[0], grenzen[1], DEFAULT_MR_ITERATIONS, 2, null));
+    }
+
+    private static BigInteger[] primGrenzen(int bitLength) {
+        BigInteger lowerBound = schnelleExponentiation.schnelleExponentiation(BigInteger.TWO, BigInteger.valueOf(bitLength / 2 - 1), BigInteger.valueOf(2).pow(bitLength));
+        BigInteger upperBound = schnelleExponentiation.schnelleExponentiation(BigInteger.TWO, BigInteger.valueOf(bitLength / 2), BigInteger.valueOf(2).pow(bitLength));
+        return new BigInteger[]{lowerBound, upperBound};
+    }
+
     /**
      * Generiert und speichert RSA-Schlüssel (e, n, d) in Dateien.
      * Misst dabei die Zeit, die für die Primzahlerzeugung benötigt wird.
@@ -40,24 +88,29 @@ public class RSAUtils {
      * @throws IOException
      */
     public static void generateAndSaveKeys(String eFile, String nFile, String dFile, int bitLength) throws IOException {
-        BigInteger lowerBound = schnelleExponentiation.schnelleExponentiation(BigInteger.TWO, BigInteger.valueOf(bitLength / 2 - 1), BigInteger.valueOf(2).pow(bitLength));
-        BigInteger upperBound = schnelleExponentiation.schnelleExponentiation(BigInteger.TWO, BigInteger.valueOf(bitLength / 2), BigInteger.valueOf(2).pow(bitLength));
+        BigInteger[] grenzen = primGrenzen(bitLength);
 
         System.out.println("---- Starte RSA-Schlüsselgenerierung (" + bitLength + " Bit) ----");
 
-        // 1) p erzeugen (mit Zeitmessung)
-        System.out.print("Erzeuge p (Primzahl) ... ");
-        long startP = System.currentTimeMillis();
-        BigInteger p = PrimGenerator.generateRandomPrime(lowerBound, upperBound, DEFAULT_MR_ITERATIONS);
-        long timeP = System.currentTimeMillis() - startP;
-        System.out.println("fertig (" + timeP + " ms). p hat Bitlänge = " + p.bitLength());
-
-        // 2) q erzeugen (mit Zeitmessung)
-        System.out.print("Erzeuge q (Primzahl) ... ");
-        long startQ = System.currentTimeMillis();
-        BigInteger q = PrimGenerator.generateRandomPrime(lowerBound, upperBound, DEFAULT_MR_ITERATIONS);
-        long timeQ = System.currentTimeMillis() - startQ;
-        System.out.println("fertig (" + timeQ + " ms). q hat Bitlänge = " + q.bitLength());
+        // 1) p und q aus dem Pool nehmen oder gleichzeitig auf allen Kernen erzeugen (mit Zeitmessung)
+        System.out.print("Erzeuge p und q (Primzahlen) ... ");
+        long startPQ = System.currentTimeMillis();
+        BigInteger[] primzahlen = null;
+        PrimPool pool = primPool;
+        if (pool != null) {
+            if (!pool.istRegistriert(poolArt(bitLength))) {
+                registrierePoolArt(pool, bitLength, DEFAULT_POOL_GROESSE);
+            }
+            primzahlen = pool.entnehmen(poolArt(bitLength));
+        }
+        if (primzahlen == null) {
+            primzahlen = PrimGenerator.generateRandomPrimes(grenzen[0], grenzen[1], DEFAULT_MR_ITERATIONS, 2,
+                    ForkJoinPool.commonPool());
+        }
+        BigInteger p = primzahlen[0];
+        BigInteger q = primzahlen[1];
+        long timePQ = System.currentTimeMillis() - startPQ;
+        System.out.println("fertig (" + timePQ + " ms). p hat Bitlänge = " + p.bitLength() + ", q hat Bitlänge = " + q.bitLength());
 
         // 3) n und phi(n) berechnen
         BigInteger n = p.multiply(q);
@@ -76,10 +129,12 @@ public class RSAUtils {
         // 5) d = e^(-1) mod φ(n) berechnen
         BigInteger d = erweiterterEuklid.erweiterterEuklid(e, phi)[1].mod(phi).add(phi).mod(phi);
 
-        // 6) Schlüssel in Dateien speichern
+        // 6) Schlüssel in Dateien speichern, p und q als CRT-Komponenten neben d
         saveKeysToFile(e, n, d, eFile, nFile, dFile);
+        String crtFile = RSACRT.crtDateiname(dFile);
+        new RSACRT(p, q, d).speichern(crtFile);
         System.out.println("Schlüssel gespeichert in Dateien: ");
-        System.out.println("  " + eFile + ", " + nFile + ", " + dFile);
+        System.out.println("  " + eFile + ", " + nFile + ", " + dFile + ", " + crtFile);
         System.out.println("---- Schlüsselgenerierung beendet ----\n");
     }
 
@@ -103,6 +158,32 @@ public class RSAUtils {
         eBob = loadKey(E_FILE_BOB);
         nBob = loadKey(N_FILE_BOB);
         dBob = loadKey(D_FILE_BOB);
+
+        crtAlice = loadCRT(D_FILE_ALICE, eAlice, nAlice, dAlice);
+        crtBob = loadCRT(D_FILE_BOB, eBob, nBob, dBob);
+        kontextAlice = new MontgomeryKontext(nAlice);
+        kontextBob = new MontgomeryKontext(nBob);
+    }
+
+    /**
+     * Lädt die CRT-Komponenten zu einer d-Datei. Fehlt die Datei (ältere Schlüssel),
+     * werden p und q aus (n, e, d) rekonstruiert.
+     */
+    private static RSACRT loadCRT(String dFile, BigInteger e, BigInteger n, BigInteger d) {
+        String crtFile = RSACRT.crtDateiname(dFile);
+        try {
+            if (new File(crtFile).exists()) {
+                RSACRT crt = RSACRT.laden(crtFile);
+                if (crt.getModulus().equals(n)) {
+                    return crt;
+                }
+                System.out.println("CRT-Datei " + crtFile + " passt nicht zum Modulus und wird ignoriert.");
+            }
+            return RSACRT.ausSchluessel(n, e, d);
+        } catch (Exception ex) {
+            System.out.println("CRT-Komponenten nicht verfügbar (" + crtFile + "): " + ex.getMessage());
+            return null;
+        }
     }
 
     private static BigInteger loadKey(String filename) throws IOException {
@@ -124,6 +205,15 @@ public class RSAUtils {
         return dAlice;
     }
 
+    public static RSACRT getAliceCRT() {
+        return crtAlice;
+    }
+
+    /** Montgomery-Kontext zu Alices Modulus (null, solange keine Schlüssel geladen sind). */
+    public static MontgomeryKontext getAliceKontext() {
+        return kontextAlice;
+    }
+
     // Getter für Bob
     public static BigInteger getBobPublicKey() {
         return eBob;
@@ -137,6 +227,15 @@ public class RSAUtils {
         return dBob;
     }
 
+    public static RSACRT getBobCRT() {
+        return crtBob;
+    }
+
+    /** Montgomery-Kontext zu Bobs Modulus (null, solange keine Schlüssel geladen sind). */
+    public static MontgomeryKontext getBobKontext() {
+        return kontextBob;
+    }
+
     // Hashfunktion für Signaturen
     private static BigInteger hashMessage(String message) throws NoSuchAlgorithmException {
         MessageDigest md = MessageDigest.getInstance("SHA-256");
@@ -147,13 +246,16 @@ public class RSAUtils {
     // Signieren einer Nachricht mit Alice's Schlüssel
     public static BigInteger sign(String message) throws NoSuchAlgorithmException {
         BigInteger hash = hashMessage(message);
-        return schnelleExponentiation.schnelleExponentiation(hash, dAlice, nAlice);
+        if (crtAlice != null) {
+            return crtAlice.potenz(hash);
+        }
+        return kontextAlice.schiebefensterExponentiation(hash, dAlice);
     }
 
     // Verifikation mit Alice PubKey
     public static boolean verify(String message, BigInteger signature) throws NoSuchAlgorithmException {
         BigInteger hash = hashMessage(message);
-        BigInteger decryptedHash = schnelleExponentiation.schnelleExponentiation(signature, eBob, nBob);
+        BigInteger decryptedHash = kontextBob.schiebefensterExponentiation(signature, eBob);
         return hash.equals(decryptedHash);
     }
 
@@ -10,6 +10,7 @@ import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.util.concurrent.ForkJoinPool;
 
 
 public class RSAUtils2047 {
@@ -28,8 +29,9 @@ public class RSAUtils2047 {
         BigInteger lowerBound = schnelleExponentiation.schnelleExponentiation(BigInteger.TWO, BigInteger.valueOf(bitLength / 2 - 1), BigInteger.valueOf(2).pow(bitLength));
         BigInteger upperBound = schnelleExponentiation.schnelleExponentiation(BigInteger.TWO, BigInteger.valueOf(bitLength / 2), BigInteger.valueOf(2).pow(bitLength));
 
-        BigInteger p = PrimGenerator.generateRandomPrime(lowerBound, upperBound, 20);
-        BigInteger q = PrimGenerator.generateRandomPrime(lowerBound, upperBound, 20);
+        BigInteger[] primzahlen = PrimGenerator.generateRandomPrimes(lowerBound, upperBound, 20, 2, ForkJoinPool.commonPool());
+        BigInteger p = primzahlen[0];
+        BigInteger q = primzahlen[1];
 
         BigInteger n = p.multiply(q);
         BigInteger phi = (p.subtract(BigInteger.ONE)).multiply(q.subtract(BigInteger.ONE));
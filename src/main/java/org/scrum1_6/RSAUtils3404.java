@@ -10,6 +10,7 @@ import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 public class RSAUtils3404 {
     private static final SecureRandom random = new SecureRandom();
@@ -29,11 +30,12 @@ public class RSAUtils3404 {
         BigInteger upperBound = schnelleExponentiation.schnelleExponentiation(BigInteger.TWO, BigInteger.valueOf(bitLength / 2), BigInteger.valueOf(2).pow(bitLength));
         System.out.println("upperBoud: " + upperBound);
 
-        // Generierung zweier großer Primzahlen
-        BigInteger p = PrimGenerator.generateRandomPrime(lowerBound, upperBound, 20);
+        // Generierung zweier großer Primzahlen, gleichzeitig auf allen Kernen
+        BigInteger[] primzahlen = PrimGenerator.generateRandomPrimes(lowerBound, upperBound, 20, 2, ForkJoinPool.commonPool());
+        BigInteger p = primzahlen[0];
         System.out.println("p: " + p);
         System.out.println("----");
-        BigInteger q = PrimGenerator.generateRandomPrime(lowerBound, upperBound, 20);
+        BigInteger q = primzahlen[1];
         System.out.println("q: " + q);
         System.out.println("----");
 
@@ -14,7 +14,7 @@ public class EllipticCurveOrderCalculator {
      * @return p = p + 1 - h
      */
     public static BigInteger computeGroupOrder(BigInteger p) {
-        if (!PrimTester.istPrimzahl(p, 200)) {
+        if (!PrimTester.istPrimzahl(p, 200, PrimTester.Verfahren.BAILLIE_PSW)) {
             throw new IllegalStateException("Eingegebene Zahl(" + p + ") ist keine Primzahl");
         }
         int[] xy = findXYRepresentation(p);
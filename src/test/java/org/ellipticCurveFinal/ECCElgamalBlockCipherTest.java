@@ -2,9 +2,17 @@ package org.ellipticCurveFinal;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import static org.ellipticCurveFinal.ECTestHilfe.*;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class ECCElgamalBlockCipherTest {
@@ -55,4 +63,134 @@ public class ECCElgamalBlockCipherTest {
         assertEquals(0, result.b2.length,  "b2 muss Länge 0 haben");
         assertEquals("", result.base64,    "Base64‐String muss leer sein");
     }
+
+    /**
+     * Rundreise über Base64: base64ToResult prüft die Punkte A, decrypt rechnet ohne erneute Prüfung.
+     */
+    @Test
+    void testRundreise() {
+        Testkurve kurve = sichereKurve(64);
+        FiniteFieldEllipticCurve curve = kurve.curve;
+        BigInteger p = curve.getP();
+        BigInteger q = kurve.q;
+        ECPoint g = kurve.g;
+        BigInteger x = BigInteger.valueOf(123456789).mod(q);
+        ECPoint y = g.multiply(x, curve);
+
+        String klartext = "Grüße über ECC-ElGamal";
+        ECCElgamalBlockCipher.Result result = ECCElgamalBlockCipher.encrypt(klartext, g, y, p, q, curve);
+        ECCElgamalBlockCipher.Result gelesen = ECCElgamalBlockCipher.base64ToResult(result.base64, p, curve);
+        assertEquals(klartext, ECCElgamalBlockCipher.decrypt(gelesen, x, p, curve));
+    }
+
+    /**
+     * Paralleler Modus: viele Tupel über einen Executor, sequentiell und parallel gegenseitig entschlüsselbar.
+     */
+    @Test
+    void testParallelGleichSequentiell() {
+        Testkurve kurve = sichereKurve(64);
+        FiniteFieldEllipticCurve curve = kurve.curve;
+        BigInteger p = curve.getP();
+        BigInteger q = kurve.q;
+        ECPoint g = new FixedBasePoint(kurve.g, curve, q.bitLength());
+        BigInteger x = BigInteger.valueOf(987654321).mod(q);
+        ECPoint y = g.multiply(x, curve);
+
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            text.append("Block ").append(i).append(" äöü ");
+        }
+        String klartext = text.toString();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            ECCElgamalBlockCipher.Result parallel = ECCElgamalBlockCipher.encrypt(klartext, g, y, p, q, curve, executor);
+            ECCElgamalBlockCipher.Result sequentiell = ECCElgamalBlockCipher.encrypt(klartext, g, y, p, q, curve);
+            assertEquals(sequentiell.ax.length, parallel.ax.length);
+            assertTrue(parallel.ax.length > ECCElgamalBlockCipher.PARALLEL_SCHWELLE);
+
+            ECCElgamalBlockCipher.Result gelesen = ECCElgamalBlockCipher.base64ToResult(parallel.base64, p, curve);
+            assertEquals(klartext, ECCElgamalBlockCipher.decrypt(gelesen, x, p, curve), "parallel → sequentiell");
+            gelesen = ECCElgamalBlockCipher.base64ToResult(sequentiell.base64, p, curve);
+            assertEquals(klartext, ECCElgamalBlockCipher.decrypt(gelesen, x, p, curve, executor), "sequentiell → parallel");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Streaming: Rundreise mit und ohne Base64, Austausch mit der String-Variante,
+     * Nullbytes im Klartext bleiben erhalten (nur das Padding am Ende wird entfernt).
+     */
+    @Test
+    void testStreamRundreise() throws IOException {
+        Testkurve kurve = sichereKurve(64);
+        FiniteFieldEllipticCurve curve = kurve.curve;
+        BigInteger p = curve.getP();
+        BigInteger q = kurve.q;
+        ECPoint g = kurve.g;
+        BigInteger x = BigInteger.valueOf(42424242).mod(q);
+        ECPoint y = g.multiply(x, curve);
+        int tupelBytes = 4 * ((p.bitLength() + 7) / 8);
+
+        byte[] daten = ("Strom mit Nullbytes \u0000\u0000 mittendrin und Umlauten äöü "
+                + "x".repeat(100)).getBytes(StandardCharsets.UTF_8);
+        for (boolean base64 : new boolean[]{false, true}) {
+            ByteArrayOutputStream chiffrat = new ByteArrayOutputStream();
+            ECCElgamalBlockCipher.encryptStream(new ByteArrayInputStream(daten), chiffrat, g, y, p, q, curve, base64);
+            if (!base64) {
+                assertEquals(0, chiffrat.size() % tupelBytes, "feste Tupelbreite");
+            }
+            ByteArrayOutputStream klar = new ByteArrayOutputStream();
+            ECCElgamalBlockCipher.decryptStream(new ByteArrayInputStream(chiffrat.toByteArray()), klar, x, p, curve, base64);
+            assertArrayEquals(daten, klar.toByteArray(), "base64 = " + base64);
+        }
+
+        // String-Chiffrat über den Strom entschlüsseln und umgekehrt
+        String text = "Grüße über beide Wege";
+        String b64 = ECCElgamalBlockCipher.encrypt(text, g, y, p, q, curve).base64;
+        ByteArrayOutputStream klar = new ByteArrayOutputStream();
+        ECCElgamalBlockCipher.decryptStream(new ByteArrayInputStream(b64.getBytes(StandardCharsets.US_ASCII)),
+                klar, x, p, curve, true);
+        assertEquals(text, klar.toString(StandardCharsets.UTF_8));
+
+        ByteArrayOutputStream chiffrat = new ByteArrayOutputStream();
+        ECCElgamalBlockCipher.encryptStream(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)),
+                chiffrat, g, y, p, q, curve, true);
+        ECCElgamalBlockCipher.Result gelesen = ECCElgamalBlockCipher.base64ToResult(
+                chiffrat.toString(StandardCharsets.US_ASCII), p, curve);
+        assertEquals(text, ECCElgamalBlockCipher.decrypt(gelesen, x, p, curve));
+
+        // abgeschnittenes Tupel und ein Tupel mit A = (0,0) (Punkt der Ordnung 2)
+        chiffrat.reset();
+        ECCElgamalBlockCipher.encryptStream(new ByteArrayInputStream(daten), chiffrat, g, y, p, q, curve, false);
+        byte[] abgeschnitten = Arrays.copyOf(chiffrat.toByteArray(), tupelBytes + 3);
+        assertThrows(IOException.class, () -> ECCElgamalBlockCipher.decryptStream(
+                new ByteArrayInputStream(abgeschnitten), new ByteArrayOutputStream(), x, p, curve, false));
+        assertThrows(IllegalArgumentException.class, () -> ECCElgamalBlockCipher.decryptStream(
+                new ByteArrayInputStream(new byte[tupelBytes]), new ByteArrayOutputStream(), x, p, curve, false));
+    }
+
+    /**
+     * Ein Chiffrat mit einem Punkt A außerhalb der Kurve oder kleiner Ordnung wird beim Einlesen abgelehnt.
+     */
+    @Test
+    void testUngueltigesChiffrat() {
+        BigInteger p = BigInteger.valueOf(29);
+        FiniteFieldEllipticCurve curve = new FiniteFieldEllipticCurve(p);
+
+        // A = (1, 1) liegt nicht auf y² = x³ - x mod 29
+        String manipuliert = Base64.getEncoder().encodeToString(new byte[]{1, 1, 0, 0});
+        assertThrows(IllegalArgumentException.class,
+                () -> ECCElgamalBlockCipher.base64ToResult(manipuliert, p, curve));
+        // A = (0, 0), (1, 0) und (28, 0) haben die Ordnung 2
+        for (byte x : new byte[]{0, 1, 28}) {
+            String kleineOrdnung = Base64.getEncoder().encodeToString(new byte[]{x, 0, 1, 1});
+            assertThrows(IllegalArgumentException.class,
+                    () -> ECCElgamalBlockCipher.base64ToResult(kleineOrdnung, p, curve), "A = (" + x + ", 0)");
+        }
+        // A = (2, 8) ist gültig (Ordnung 20)
+        String gueltig = Base64.getEncoder().encodeToString(new byte[]{2, 8, 0, 0});
+        assertEquals(1, ECCElgamalBlockCipher.base64ToResult(gueltig, p, curve).ax.length);
+    }
 }
@@ -0,0 +1,74 @@
+package org.ellipticCurveFinal;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.ellipticCurveFinal.ECTestHilfe.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ECCHybridCipherTest {
+
+    @Test
+    void testRundreise() {
+        Testkurve kurve = sichereKurve(96);
+        FiniteFieldEllipticCurve curve = kurve.curve;
+        BigInteger q = kurve.q;
+        ECPoint g = new FixedBasePoint(kurve.g, curve, q.bitLength());
+        BigInteger x = new BigInteger(q.bitLength() - 1, random).add(BigInteger.ONE);
+        ECPoint y = g.multiply(x, curve);
+
+        String text = "Hybrid: ein Punkt pro Nachricht, der Rest über AES-GCM. äöü ß " + "x".repeat(5000);
+        String chiffrat = ECCHybridCipher.encryptToBase64(text, g, y, q, curve);
+        assertEquals(text, ECCHybridCipher.decryptFromBase64(chiffrat, x, curve));
+        assertTrue(chiffrat.startsWith("ECH1:"));
+        assertTrue(ECCHybridCipher.isHybrid(chiffrat));
+
+        // leerer Klartext und Ausdehnung nur um den festen Kopf
+        byte[] leer = ECCHybridCipher.encrypt(new byte[0], g, y, q, curve);
+        assertArrayEquals(new byte[0], ECCHybridCipher.decrypt(leer, x, curve));
+        byte[] lang = ECCHybridCipher.encrypt(new byte[1000], g, y, q, curve);
+        assertEquals(leer.length + 1000, lang.length);
+
+        // mit GLV auf der Kurve
+        curve.setQ(q);
+        curve.enableGLV(g);
+        ECPoint yU = curve.validateSubgroupPoint(y, q);
+        assertEquals(text, ECCHybridCipher.decryptFromBase64(ECCHybridCipher.encryptToBase64(text, g, yU, q, curve), x, curve));
+    }
+
+    @Test
+    void testManipulationWirdErkannt() {
+        Testkurve kurve = sichereKurve(64);
+        FiniteFieldEllipticCurve curve = kurve.curve;
+        BigInteger q = kurve.q;
+        ECPoint g = kurve.g;
+        BigInteger x = BigInteger.valueOf(31337);
+        ECPoint y = g.multiply(x, curve);
+        byte[] daten = ECCHybridCipher.encrypt("geheim".getBytes(StandardCharsets.UTF_8), g, y, q, curve);
+
+        byte[] verändert = daten.clone();
+        verändert[verändert.length - 1] ^= 1;
+        assertThrows(IllegalArgumentException.class, () -> ECCHybridCipher.decrypt(verändert, x, curve), "Tag");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ECCHybridCipher.decrypt(daten, x.add(BigInteger.ONE), curve), "falscher Schlüssel");
+
+        byte[] falscheVersion = daten.clone();
+        falscheVersion[3] = 99;
+        assertThrows(IllegalArgumentException.class, () -> ECCHybridCipher.decrypt(falscheVersion, x, curve), "Version");
+
+        byte[] punktNichtAufKurve = daten.clone();
+        punktNichtAufKurve[5] ^= 1;
+        assertThrows(IllegalArgumentException.class, () -> ECCHybridCipher.decrypt(punktNichtAufKurve, x, curve), "A");
+
+        // eine Tupelfolge ist reines Base64 und trägt nie die Kennung, auch wenn ihre Bytes mit "ECH" beginnen
+        assertFalse(ECCHybridCipher.isHybrid(Base64.getEncoder().encodeToString(daten)));
+        assertFalse(ECCHybridCipher.isHybrid("RSH1:" + Base64.getEncoder().encodeToString(daten)));
+        assertThrows(IllegalArgumentException.class,
+                () -> ECCHybridCipher.decryptFromBase64(Base64.getEncoder().encodeToString(daten), x, curve));
+        assertThrows(IllegalArgumentException.class, () -> ECCHybridCipher.decrypt(new byte[]{'E', 'C', 'H'}, x, curve));
+    }
+}
@@ -0,0 +1,61 @@
+package org.ellipticCurveFinal;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.ellipticCurveFinal.ECTestHilfe.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ECPointTest {
+
+    /**
+     * Σ k_i·P_i muss der Summe der einzelnen Multiplikationen entsprechen,
+     * auch mit negativen Skalaren, 0, dem Unendlichkeitspunkt und einem FixedBasePoint.
+     */
+    @Test
+    void testMultiScalarMultiply() {
+        Testkurve kurve = sichereKurve(64);
+        FiniteFieldEllipticCurve curve = kurve.curve;
+        BigInteger q = kurve.q;
+        ECPoint g = kurve.g;
+        ECPoint y = g.multiply(new BigInteger(q.bitLength(), random).mod(q), curve);
+        ECPoint z = g.multiply(BigInteger.valueOf(12345), curve);
+        FixedBasePoint gFest = new FixedBasePoint(g, curve, q.bitLength());
+
+        for (int i = 0; i < 10; i++) {
+            BigInteger k1 = new BigInteger(q.bitLength(), random);
+            BigInteger k2 = new BigInteger(q.bitLength(), random);
+            BigInteger k3 = new BigInteger(q.bitLength(), random).negate();
+            ECPoint erwartet = g.multiply(k1, curve).add(y.multiply(k2, curve), curve);
+
+            assertGleicherPunkt(erwartet, ECPoint.multiScalarMultiply(k1, g, k2, y, curve), "zwei Punkte");
+            assertGleicherPunkt(erwartet, ECPoint.multiScalarMultiply(k1, gFest, k2, y, curve), "mit FixedBasePoint");
+
+            ECPoint erwartet3 = erwartet.add(z.multiply(k3, curve), curve);
+            assertGleicherPunkt(erwartet3, ECPoint.multiScalarMultiply(
+                    new ECPoint[]{g, y, z, InfinitePoint.getInstance()},
+                    new BigInteger[]{k1, k2, k3, BigInteger.TEN}, curve), "drei Punkte und ∞");
+        }
+
+        // P - P = ∞, auch wenn die Teilsumme P + (-P) selbst ∞ ist
+        assertTrue(ECPoint.multiScalarMultiply(BigInteger.ONE, y, BigInteger.ONE.negate(), y, curve)
+                instanceof InfinitePoint);
+        assertTrue(ECPoint.multiScalarMultiply(BigInteger.ZERO, g, BigInteger.ZERO, y, curve)
+                instanceof InfinitePoint);
+    }
+
+    @Test
+    void testSignaturMitMultiScalarVerify() {
+        Testkurve kurve = sichereKurve(64);
+        FiniteFieldEllipticCurve curve = kurve.curve;
+        BigInteger q = kurve.q;
+        ECPoint g = new FixedBasePoint(kurve.g, curve, q.bitLength());
+        BigInteger x = new BigInteger(q.bitLength() - 1, random).add(BigInteger.ONE);
+        ECPoint y = g.multiply(x, curve);
+
+        ECCSignature.Signature sig = ECCSignature.sign("Hallo Welt", x, q, g, curve);
+        assertTrue(ECCSignature.verify("Hallo Welt", sig, y, q, g, curve), "gültige Signatur");
+        assertFalse(ECCSignature.verify("Hallo Welt!", sig, y, q, g, curve), "andere Nachricht");
+    }
+}
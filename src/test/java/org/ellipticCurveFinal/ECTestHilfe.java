@@ -0,0 +1,57 @@
+package org.ellipticCurveFinal;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Gemeinsame Kurven und Vergleiche für die Tests der Punktarithmetik und der ECC-Verfahren.
+ */
+final class ECTestHilfe {
+
+    static final SecureRandom random = new SecureRandom();
+
+    private ECTestHilfe() {
+    }
+
+    /** Kurve aus SecureFiniteFieldEllipticCurve mit Untergruppenordnung q und Generator g. */
+    static final class Testkurve {
+        final FiniteFieldEllipticCurve curve;
+        final BigInteger q;
+        final ECPoint g;
+
+        private Testkurve(FiniteFieldEllipticCurve curve, BigInteger q, ECPoint g) {
+            this.curve = curve;
+            this.q = q;
+            this.g = g;
+        }
+    }
+
+    /** Sichere Kurve mit p der Länge bitLength (20 Miller-Rabin-Runden) samt Generator der Ordnung q. */
+    static Testkurve sichereKurve(int bitLength) {
+        SecureFiniteFieldEllipticCurve sec = new SecureFiniteFieldEllipticCurve(bitLength, 20);
+        FiniteFieldEllipticCurve curve = sec.getCurve();
+        BigInteger q = sec.getQ();
+        return new Testkurve(curve, q, curve.findGenerator(q));
+    }
+
+    /** Zufällige Kurve mit p ≡ 5 (mod 8), ohne Gruppenordnung. */
+    static FiniteFieldEllipticCurve erzeugeKurve(int bitLength) {
+        BigInteger p;
+        do {
+            p = BigInteger.probablePrime(bitLength, random);
+        } while (p.mod(BigInteger.valueOf(8)).intValue() != 5);
+        return new FiniteFieldEllipticCurve(p);
+    }
+
+    static void assertGleicherPunkt(ECPoint erwartet, ECPoint tatsaechlich, String nachricht) {
+        if (erwartet instanceof InfinitePoint) {
+            assertTrue(tatsaechlich instanceof InfinitePoint, nachricht);
+            return;
+        }
+        assertFalse(tatsaechlich instanceof InfinitePoint, nachricht);
+        assertEquals(erwartet.getX(), tatsaechlich.getX(), nachricht);
+        assertEquals(erwartet.getY(), tatsaechlich.getY(), nachricht);
+    }
+}
@@ -62,4 +62,37 @@ public class FiniteFieldECPointTest {
         ECPoint dbl = P1.doublePoint(curve);
         assertTrue(dbl instanceof InfinitePoint, "DoublePoint((0,0)) muss ∞ sein");
     }
+
+    /**
+     * Testet validatePoint(...) als Prüfung an Vertrauensgrenzen:
+     * gültige Punkte werden zurückgegeben, nicht reduzierte Koordinaten, Punkte neben der Kurve,
+     * Punkte kleiner Ordnung und ∞ werden abgelehnt.
+     */
+    @Test
+    void testValidatePoint() {
+        // über F_29 hat die Kurve 40 Punkte, (2,8) hat die Ordnung 20
+        FiniteFieldEllipticCurve curve = new FiniteFieldEllipticCurve(BigInteger.valueOf(29));
+        ECPoint gueltig = new FiniteFieldECPoint(BigInteger.TWO, BigInteger.valueOf(8));
+        assertSame(gueltig, curve.validatePoint(gueltig));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> curve.validatePoint(new FiniteFieldECPoint(BigInteger.valueOf(31), BigInteger.valueOf(8))),
+                "(31,8) ≡ (2,8), aber nicht reduziert");
+        assertThrows(IllegalArgumentException.class,
+                () -> curve.validatePoint(new FiniteFieldECPoint(BigInteger.ONE, BigInteger.ONE)),
+                "(1,1) liegt nicht auf der Kurve");
+        assertThrows(IllegalArgumentException.class,
+                () -> curve.validatePoint(InfinitePoint.getInstance()));
+
+        // 2-Torsion (y = 0) und Punkte, deren Ordnung 8 teilt
+        for (long x : new long[]{0, 1, 28}) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> curve.validatePoint(new FiniteFieldECPoint(BigInteger.valueOf(x), BigInteger.ZERO)),
+                    "(" + x + ",0)");
+        }
+        FiniteFieldEllipticCurve curve17 = new FiniteFieldEllipticCurve(BigInteger.valueOf(17));
+        assertThrows(IllegalArgumentException.class,
+                () -> curve17.validatePoint(new FiniteFieldECPoint(BigInteger.valueOf(5), BigInteger.ONE)),
+                "(5,1) hat über F_17 die Ordnung 4");
+    }
 }
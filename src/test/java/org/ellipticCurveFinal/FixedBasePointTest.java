@@ -0,0 +1,88 @@
+package org.ellipticCurveFinal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.ellipticCurveFinal.ECTestHilfe.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FixedBasePointTest {
+
+    @Test
+    void testVergleichMitAllgemeinerMultiplikation() {
+        FiniteFieldEllipticCurve curve = erzeugeKurve(160);
+        ECPoint g = curve.findGenerator(BigInteger.ONE);
+        int bits = curve.getP().bitLength();
+
+        for (int w : new int[]{1, 4, 5}) {
+            FixedBasePoint fest = new FixedBasePoint(g, curve, bits, w);
+            assertEquals(g.getX(), fest.getX());
+            assertEquals(g.getY(), fest.getY());
+            assertTrue(fest.multiply(BigInteger.ZERO, curve) instanceof InfinitePoint, "0·G muss ∞ sein");
+            for (int i = 0; i < 10; i++) {
+                BigInteger k = new BigInteger(bits, random);
+                assertGleicherPunkt(g.multiply(k, curve), fest.multiply(k, curve), "w = " + w + ", k = " + k);
+            }
+            // längere und negative Skalare laufen über die allgemeine Multiplikation
+            BigInteger lang = new BigInteger(bits + 20, random).setBit(bits + 19);
+            assertGleicherPunkt(g.multiply(lang, curve), fest.multiply(lang, curve), "Skalar länger als die Tabelle");
+            assertGleicherPunkt(g.multiply(BigInteger.valueOf(-7), curve), fest.multiply(BigInteger.valueOf(-7), curve),
+                    "negativer Skalar");
+        }
+    }
+
+    @Test
+    void testSpeichernUndLaden(@TempDir Path tempDir) throws IOException {
+        FiniteFieldEllipticCurve curve = erzeugeKurve(128);
+        ECPoint g = curve.findGenerator(BigInteger.ONE);
+        int bits = curve.getP().bitLength();
+        Path datei = tempDir.resolve("generator.txt");
+
+        assertNull(FixedBasePoint.load(datei, g, curve, bits), "Ohne Datei gibt es keine Tabelle.");
+        new FixedBasePoint(g, curve, bits, 4).save(datei);
+
+        FixedBasePoint geladen = FixedBasePoint.load(datei, g, curve, bits);
+        assertNotNull(geladen);
+        assertEquals(4, geladen.getFensterBreite());
+        BigInteger k = new BigInteger(bits, random);
+        assertGleicherPunkt(g.multiply(k, curve), geladen.multiply(k, curve), "geladene Tabelle");
+
+        // Tabelle zu einem anderen Punkt bzw. einer anderen Skalarlänge wird verworfen
+        ECPoint anderer = g.multiply(BigInteger.TWO, curve);
+        assertNull(FixedBasePoint.load(datei, anderer, curve, bits));
+        assertNull(FixedBasePoint.load(datei, g, curve, bits + 1));
+    }
+
+    @Test
+    void testBeschaedigteTabelleWirdVerworfen(@TempDir Path tempDir) throws IOException {
+        FiniteFieldEllipticCurve curve = erzeugeKurve(128);
+        ECPoint g = curve.findGenerator(BigInteger.ONE);
+        int bits = curve.getP().bitLength();
+        Path datei = tempDir.resolve("generator.txt");
+        new FixedBasePoint(g, curve, bits, 3).save(datei);
+        List<String> zeilen = Files.readAllLines(datei);
+
+        // Zeile 0 ist der Kopf; 11 = T[1][3], 8 = T[1][0], zuletzt der letzte Eintrag der Tabelle
+        for (int zeile : new int[]{11, 8, zeilen.size() - 1}) {
+            List<String> kopie = new ArrayList<>(zeilen);
+            String[] punkt = kopie.get(zeile).split(",");
+            // ein anderer gültiger Kurvenpunkt: -P statt P
+            kopie.set(zeile, punkt[0] + "," + curve.getP().subtract(new BigInteger(punkt[1])));
+            Files.write(datei, kopie);
+            assertNull(FixedBasePoint.load(datei, g, curve, bits), "Eintrag in Zeile " + zeile);
+
+            kopie.set(zeile, punkt[0] + "," + new BigInteger(punkt[1]).add(BigInteger.ONE));
+            Files.write(datei, kopie);
+            assertNull(FixedBasePoint.load(datei, g, curve, bits), "Punkt neben der Kurve in Zeile " + zeile);
+        }
+        Files.write(datei, zeilen);
+        assertNotNull(FixedBasePoint.load(datei, g, curve, bits));
+    }
+}
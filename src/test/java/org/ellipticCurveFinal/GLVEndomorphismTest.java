@@ -0,0 +1,99 @@
+package org.ellipticCurveFinal;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.ellipticCurveFinal.ECTestHilfe.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GLVEndomorphismTest {
+
+    @Test
+    void testZerlegungUndEndomorphismus() {
+        Testkurve kurve = sichereKurve(96);
+        FiniteFieldEllipticCurve curve = kurve.curve;
+        BigInteger q = kurve.q;
+        ECPoint g = kurve.g;
+        GLVEndomorphism glv = new GLVEndomorphism(curve, g);
+
+        BigInteger lambda = glv.getLambda();
+        assertEquals(q.subtract(BigInteger.ONE), lambda.multiply(lambda).mod(q), "λ² ≡ -1 mod q");
+
+        for (int i = 0; i < 20; i++) {
+            BigInteger k = new BigInteger(q.bitLength() + 8, random);
+            BigInteger[] teile = glv.decompose(k);
+            assertEquals(k.mod(q), teile[0].add(teile[1].multiply(lambda)).mod(q), "k ≡ k1 + k2·λ mod q");
+            // beide Teile sind etwa √q groß (mit etwas Spielraum für die Rundung)
+            assertTrue(teile[0].bitLength() <= q.bitLength() / 2 + 2, "k1 zu lang: " + teile[0]);
+            assertTrue(teile[1].bitLength() <= q.bitLength() / 2 + 2, "k2 zu lang: " + teile[1]);
+
+            ECPoint punkt = g.multiply(new BigInteger(q.bitLength(), random), curve);
+            assertGleicherPunkt(punkt.multiply(lambda, curve), glv.apply(punkt), "φ(P) = λ·P");
+        }
+    }
+
+    @Test
+    void testMultiplikationMitUndOhneGLV() {
+        Testkurve kurve = sichereKurve(96);
+        FiniteFieldEllipticCurve ohne = kurve.curve;
+        BigInteger q = kurve.q;
+        ECPoint g = kurve.g;
+
+        FiniteFieldEllipticCurve mit = new FiniteFieldEllipticCurve(ohne.getP());
+        mit.setQ(q);
+        mit.enableGLV(g);
+        assertNotNull(mit.getGLV());
+
+        // GLV nur für Punkte, deren Zugehörigkeit zur Untergruppe geprüft ist
+        ECPoint gU = mit.validateSubgroupPoint(g, q);
+        for (int i = 0; i < 10; i++) {
+            BigInteger k1 = new BigInteger(q.bitLength(), random);
+            BigInteger k2 = new BigInteger(q.bitLength(), random).negate();
+            ECPoint y = g.multiply(new BigInteger(q.bitLength(), random), ohne);
+            ECPoint yU = mit.validateSubgroupPoint(y, q);
+
+            assertGleicherPunkt(g.multiply(k1, ohne), gU.multiply(k1, mit), "k·G");
+            assertGleicherPunkt(y.multiply(k2, ohne), yU.multiply(k2, mit), "negativer Skalar");
+            assertGleicherPunkt(ECPoint.multiScalarMultiply(k1, g, k2, y, ohne),
+                    ECPoint.multiScalarMultiply(k1, gU, k2, yU, mit), "k1·G + k2·Y");
+        }
+
+        // Skalare ≥ q werden wie k mod q behandelt
+        assertGleicherPunkt(g.multiply(BigInteger.TEN, ohne), gU.multiply(q.add(BigInteger.TEN), mit), "(q + 10)·G");
+        assertTrue(gU.multiply(q, mit) instanceof InfinitePoint, "q·G = ∞");
+
+        mit.disableGLV();
+        assertNull(mit.getGLV());
+    }
+
+    @Test
+    void testPunkteAusserhalbDerUntergruppe() {
+        Testkurve kurve = sichereKurve(96);
+        FiniteFieldEllipticCurve ohne = kurve.curve;
+        BigInteger q = kurve.q;
+        ECPoint g = kurve.g;
+        FiniteFieldEllipticCurve mit = new FiniteFieldEllipticCurve(ohne.getP());
+        mit.setQ(q);
+        mit.enableGLV(g);
+
+        // G + (0, 0) hat die Ordnung 2q; mit GLV gerechnet käme hier ein falscher Punkt heraus
+        ECPoint fremd = g.add(new FiniteFieldECPoint(BigInteger.ZERO, BigInteger.ZERO), ohne);
+        assertTrue(mit.isValidPoint(fremd));
+        assertThrows(IllegalArgumentException.class, () -> mit.validateSubgroupPoint(fremd, q));
+        for (int i = 0; i < 5; i++) {
+            BigInteger k = new BigInteger(q.bitLength(), random);
+            assertGleicherPunkt(fremd.multiply(k, ohne), fremd.multiply(k, mit), "k·P außerhalb der Untergruppe");
+            assertGleicherPunkt(ECPoint.multiScalarMultiply(k, g, k, fremd, ohne),
+                    ECPoint.multiScalarMultiply(k, g, k, fremd, mit), "k·G + k·P außerhalb der Untergruppe");
+        }
+    }
+
+    @Test
+    void testOhneUntergruppenordnung() {
+        FiniteFieldEllipticCurve curve = new FiniteFieldEllipticCurve(BigInteger.valueOf(17));
+        ECPoint g = new FiniteFieldECPoint(BigInteger.valueOf(5), BigInteger.ONE);
+        assertThrows(IllegalArgumentException.class, () -> curve.enableGLV(g));
+        assertNull(curve.getGLV());
+    }
+}
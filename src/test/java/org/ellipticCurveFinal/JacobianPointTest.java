@@ -0,0 +1,124 @@
+package org.ellipticCurveFinal;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.ellipticCurveFinal.ECTestHilfe.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JacobianPointTest {
+
+    /**
+     * Referenz: Double-and-Add ausschließlich mit den affinen Operationen add/doublePoint.
+     */
+    private static ECPoint affinMultiplizieren(ECPoint punkt, BigInteger k, FiniteFieldEllipticCurve curve) {
+        ECPoint result = InfinitePoint.getInstance();
+        ECPoint temp = punkt;
+        for (int i = 0; i < k.bitLength(); i++) {
+            if (k.testBit(i)) {
+                result = result.add(temp, curve);
+            }
+            temp = temp.doublePoint(curve);
+        }
+        return result;
+    }
+
+
+    /**
+     * Alle Punkte der Kurve y^2 = x^3 - x mod 17 und alle kleinen Skalare,
+     * damit auch P + (-P), Punkte der Ordnung 2 und P + P im Add-Zweig vorkommen.
+     */
+    @Test
+    void testAllePunkteKleineKurve() {
+        BigInteger p = BigInteger.valueOf(17);
+        FiniteFieldEllipticCurve curve = new FiniteFieldEllipticCurve(p);
+        List<ECPoint> punkte = new ArrayList<>();
+        for (int x = 0; x < 17; x++) {
+            for (int y = 0; y < 17; y++) {
+                ECPoint punkt = new FiniteFieldECPoint(BigInteger.valueOf(x), BigInteger.valueOf(y));
+                if (curve.isValidPoint(punkt)) {
+                    punkte.add(punkt);
+                }
+            }
+        }
+        for (ECPoint punkt : punkte) {
+            for (int k = -3; k <= 40; k++) {
+                BigInteger skalar = BigInteger.valueOf(k);
+                ECPoint erwartet = k >= 0
+                        ? affinMultiplizieren(punkt, skalar, curve)
+                        : affinMultiplizieren(new FiniteFieldECPoint(punkt.getX(), punkt.getY().negate().mod(p)),
+                        skalar.negate(), curve);
+                assertGleicherPunkt(erwartet, punkt.multiply(skalar, curve), k + "·" + punkt);
+            }
+        }
+    }
+
+    @Test
+    void testGrosseKurve() {
+        FiniteFieldEllipticCurve curve = erzeugeKurve(256);
+        ECPoint g = curve.findGenerator(BigInteger.ONE);
+
+        for (int i = 0; i < 5; i++) {
+            BigInteger k1 = new BigInteger(256, random);
+            BigInteger k2 = new BigInteger(256, random);
+            ECPoint summe = g.multiply(k1, curve).add(g.multiply(k2, curve), curve);
+            assertGleicherPunkt(summe, g.multiply(k1.add(k2), curve), "k1·G + k2·G = (k1 + k2)·G");
+            assertGleicherPunkt(affinMultiplizieren(g, k1, curve), g.multiply(k1, curve), "Vergleich mit affiner Referenz");
+        }
+    }
+
+    @Test
+    void testAddJacobiMitZUngleichEins() {
+        FiniteFieldEllipticCurve curve = erzeugeKurve(192);
+        ECPoint g = curve.findGenerator(BigInteger.ONE);
+
+        // 2G und 3G liegen nach twice/add mit Z ≠ 1 vor
+        JacobianPoint zweiG = JacobianPoint.fromAffine(g, curve);
+        zweiG.twice();
+        JacobianPoint dreiG = zweiG.copy();
+        dreiG.add(JacobianPoint.fromAffine(g, curve));
+        JacobianPoint fuenfG = zweiG.copy();
+        fuenfG.add(dreiG);
+        assertGleicherPunkt(affinMultiplizieren(g, BigInteger.valueOf(5), curve), fuenfG.toAffine(), "2G + 3G");
+
+        JacobianPoint unendlich = dreiG.copy();
+        JacobianPoint minusDreiG = dreiG.copy();
+        minusDreiG.negate();
+        unendlich.add(minusDreiG);
+        assertTrue(unendlich.isInfinity(), "3G + (-3G) muss ∞ sein");
+
+        JacobianPoint sechsG = dreiG.copy();
+        sechsG.add(dreiG.copy());
+        assertGleicherPunkt(affinMultiplizieren(g, BigInteger.valueOf(6), curve), sechsG.toAffine(), "3G + 3G");
+    }
+
+    @Test
+    void testNormalizeAll() {
+        FiniteFieldEllipticCurve curve = erzeugeKurve(192);
+        ECPoint g = curve.findGenerator(BigInteger.ONE);
+
+        // Punkte mit Z ≠ 1, ein affiner Punkt und ∞ gemischt
+        JacobianPoint[] punkte = new JacobianPoint[6];
+        ECPoint[] erwartet = new ECPoint[punkte.length];
+        for (int i = 0; i < punkte.length; i++) {
+            BigInteger k = BigInteger.valueOf(i + 2);
+            punkte[i] = g.multiplyJacobian(k, curve);
+            erwartet[i] = affinMultiplizieren(g, k, curve);
+        }
+        punkte[2] = JacobianPoint.fromAffine(g, curve);
+        erwartet[2] = g;
+        punkte[4] = JacobianPoint.infinity(curve);
+        erwartet[4] = InfinitePoint.getInstance();
+
+        ECPoint[] affin = JacobianPoint.toAffineAll(punkte);
+        for (int i = 0; i < punkte.length; i++) {
+            assertGleicherPunkt(erwartet[i], affin[i], "Punkt " + i);
+            // nach der Normalisierung stellen die Punkte weiterhin denselben Punkt dar
+            assertGleicherPunkt(erwartet[i], punkte[i].toAffine(), "Punkt " + i + " nach normalizeAll");
+        }
+        JacobianPoint.normalizeAll(new JacobianPoint[0]);
+    }
+}
@@ -0,0 +1,54 @@
+package org.ellipticCurveFinal;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WNAFTest {
+
+    /**
+     * Prüft die wNAF-Eigenschaften: Σ d_i·2^i = k, Ziffern 0 oder ungerade mit |d_i| < 2^(w-1),
+     * unter je w aufeinanderfolgenden Ziffern höchstens eine ungleich 0, höchste Ziffer ≠ 0.
+     */
+    @Test
+    void testEigenschaften() {
+        SecureRandom random = new SecureRandom();
+        for (int w = 2; w <= 6; w++) {
+            for (int versuch = 0; versuch < 50; versuch++) {
+                BigInteger k = new BigInteger(1 + random.nextInt(300), random);
+                if (versuch % 2 == 1) {
+                    k = k.negate();
+                }
+                int[] ziffern = WNAF.recode(k, w);
+
+                BigInteger summe = BigInteger.ZERO;
+                int letzteUngleichNull = -w;
+                for (int i = 0; i < ziffern.length; i++) {
+                    int d = ziffern[i];
+                    summe = summe.add(BigInteger.valueOf(d).shiftLeft(i));
+                    if (d != 0) {
+                        assertEquals(1, Math.abs(d) % 2, "Ziffern müssen ungerade sein");
+                        assertTrue(Math.abs(d) < (1 << (w - 1)), "Ziffer zu groß: " + d);
+                        assertTrue(i - letzteUngleichNull >= w, "zwei Ziffern ≠ 0 im Abstand < w");
+                        letzteUngleichNull = i;
+                    }
+                }
+                assertEquals(k, summe, "Σ d_i·2^i muss k ergeben");
+                if (ziffern.length > 0) {
+                    assertNotEquals(0, ziffern[ziffern.length - 1], "höchste Ziffer darf nicht 0 sein");
+                }
+                assertTrue(ziffern.length <= k.bitLength() + 1);
+            }
+        }
+        assertEquals(0, WNAF.recode(BigInteger.ZERO, 4).length);
+        assertArrayEquals(new int[]{-1, 0, 0, 1}, WNAF.recode(BigInteger.valueOf(7), 2));
+    }
+
+    @Test
+    void testUngueltigeBreite() {
+        assertThrows(IllegalArgumentException.class, () -> WNAF.recode(BigInteger.TEN, 1));
+    }
+}
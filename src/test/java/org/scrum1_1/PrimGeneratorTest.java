@@ -2,6 +2,8 @@ package org.scrum1_1;
 
 import org.junit.jupiter.api.Test;
 import java.math.BigInteger;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -56,4 +58,52 @@ class PrimGeneratorTest {
             assertEquals(BigInteger.ONE, randomBigInt.mod(BigInteger.TWO), "Die generierte Zahl sollte ungerade sein.");
         }
     }
+
+    @Test
+    void testSiebKleineUndGrosseBereiche() {
+        // kleine Primzahlen im Bereich dürfen vom Sieb nicht gestrichen werden
+        for (int i = 0; i < 50; i++) {
+            BigInteger prime = PrimGenerator.generateRandomPrime(BigInteger.valueOf(3), BigInteger.valueOf(40), 10);
+            assertTrue(prime.isProbablePrime(20) && prime.intValue() >= 3 && prime.intValue() <= 40, "Primzahl " + prime);
+        }
+        // schmaler Bereich mit genau einer Primzahl: 1009 (1000..1012)
+        assertEquals(BigInteger.valueOf(1009),
+                PrimGenerator.generateRandomPrime(BigInteger.valueOf(1000), BigInteger.valueOf(1012), 10));
+
+        // großer Bereich, mehrere Siebfenster möglich
+        BigInteger untere = BigInteger.ONE.shiftLeft(511);
+        BigInteger obere = BigInteger.ONE.shiftLeft(512).subtract(BigInteger.ONE);
+        for (int i = 0; i < 5; i++) {
+            BigInteger prime = PrimGenerator.generateRandomPrime(untere, obere, 20);
+            assertEquals(512, prime.bitLength());
+            assertTrue(prime.isProbablePrime(50), "Die Zahl sollte mit hoher Wahrscheinlichkeit eine Primzahl sein.");
+        }
+    }
+
+    @Test
+    void testParalleleSuche() {
+        BigInteger untere = BigInteger.ONE.shiftLeft(255);
+        BigInteger obere = BigInteger.ONE.shiftLeft(256).subtract(BigInteger.ONE);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            BigInteger[] primzahlen = PrimGenerator.generateRandomPrimes(untere, obere, 20, 2, executor);
+            assertEquals(2, primzahlen.length);
+            assertNotEquals(primzahlen[0], primzahlen[1], "p und q müssen verschieden sein.");
+            for (BigInteger prime : primzahlen) {
+                assertEquals(256, prime.bitLength());
+                assertTrue(prime.isProbablePrime(50));
+            }
+            BigInteger prime = PrimGenerator.generateRandomPrime(untere, obere, 20, executor);
+            assertTrue(prime.isProbablePrime(50));
+        } finally {
+            executor.shutdown();
+        }
+
+        // ohne Executor sequentiell; auch ein Bereich mit genau zwei Primzahlen (1009, 1013)
+        BigInteger[] beide = PrimGenerator.generateRandomPrimes(BigInteger.valueOf(1000), BigInteger.valueOf(1018), 10, 2, null);
+        assertEquals(2, beide.length);
+        assertEquals(BigInteger.valueOf(2022), beide[0].add(beide[1]));
+        assertThrows(IllegalArgumentException.class,
+                () -> PrimGenerator.generateRandomPrimes(BigInteger.TEN, BigInteger.TWO, 10, 2, null));
+    }
 }
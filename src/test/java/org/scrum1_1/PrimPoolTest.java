@@ -0,0 +1,114 @@
+package org.scrum1_1;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrimPoolTest {
+
+    @TempDir
+    Path ordner;
+
+    private static void warteAufGroesse(PrimPool pool, String art, int groesse) throws InterruptedException {
+        long ende = System.currentTimeMillis() + 10_000;
+        while (pool.groesse(art) < groesse) {
+            assertTrue(System.currentTimeMillis() < ende, "Der Pool wurde nicht rechtzeitig aufgefüllt.");
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void testAuffuellenEntnehmenUndPersistenz() throws InterruptedException {
+        Path datei = ordner.resolve("pool.txt");
+        PrimPool pool = new PrimPool(datei);
+        assertNull(pool.entnehmen("rsa-64"), "Eine leere Art liefert null.");
+
+        BigInteger untere = BigInteger.ONE.shiftLeft(31);
+        BigInteger obere = BigInteger.ONE.shiftLeft(32).subtract(BigInteger.ONE);
+        pool.registriere("rsa-64", 3, () -> PrimGenerator.generateRandomPrimes(untere, obere, 20, 2, null));
+        pool.starte();
+        try {
+            warteAufGroesse(pool, "rsa-64", 3);
+            BigInteger[] paar = pool.entnehmen("rsa-64");
+            assertEquals(2, paar.length);
+            assertTrue(paar[0].isProbablePrime(50) && paar[1].isProbablePrime(50));
+            assertNotEquals(paar[0], paar[1]);
+            // nach der Entnahme wird wieder auf 3 aufgefüllt
+            warteAufGroesse(pool, "rsa-64", 3);
+        } finally {
+            pool.stoppe();
+        }
+
+        // ein neuer Pool auf derselben Datei kennt die Tupel, aber nicht mehr das entnommene
+        PrimPool neu = new PrimPool(datei);
+        assertEquals(3, neu.groesse("rsa-64"));
+        BigInteger[] geladen = neu.entnehmen("rsa-64");
+        assertEquals(2, geladen.length);
+        assertEquals(2, new PrimPool(datei).groesse("rsa-64"));
+    }
+
+    @Test
+    void testZielGroesseAendern() throws InterruptedException {
+        PrimPool pool = new PrimPool(ordner.resolve("zaehler.txt"));
+        AtomicInteger zaehler = new AtomicInteger();
+        pool.registriere("zaehler", 2, () -> new BigInteger[]{BigInteger.valueOf(zaehler.incrementAndGet())});
+        pool.starte();
+        try {
+            warteAufGroesse(pool, "zaehler", 2);
+            // FIFO: das zuerst erzeugte Tupel kommt zuerst heraus
+            assertEquals(BigInteger.ONE, pool.entnehmen("zaehler")[0]);
+            pool.registriere("zaehler", 5, () -> new BigInteger[]{BigInteger.valueOf(zaehler.incrementAndGet())});
+            warteAufGroesse(pool, "zaehler", 5);
+        } finally {
+            pool.stoppe();
+        }
+        assertThrows(IllegalArgumentException.class, () -> pool.registriere("zaehler", -1, () -> null));
+    }
+
+    @Test
+    void testFehlerhafterErzeugerBetrifftNurSeineArt() throws InterruptedException {
+        PrimPool pool = new PrimPool(ordner.resolve("fehler.txt"));
+        pool.registriere("kaputt", 2, () -> {
+            throw new IllegalStateException("absichtlich");
+        });
+        AtomicInteger zaehler = new AtomicInteger();
+        pool.registriere("zaehler", 3, () -> new BigInteger[]{BigInteger.valueOf(zaehler.incrementAndGet())});
+        pool.starte();
+        try {
+            warteAufGroesse(pool, "zaehler", 3);
+            assertFalse(pool.istRegistriert("kaputt"), "Die fehlerhafte Art wird abgemeldet.");
+            assertNotNull(pool.entnehmen("zaehler"));
+            // der Hintergrund-Thread läuft weiter und füllt wieder auf
+            warteAufGroesse(pool, "zaehler", 3);
+        } finally {
+            pool.stoppe();
+        }
+    }
+
+    @Test
+    void testKeineEntnahmeOhneSpeichern() throws InterruptedException, IOException {
+        // das Verzeichnis der Pool-Datei fehlt zunächst, Speichern schlägt also fehl
+        Path unterordner = ordner.resolve("fehlt");
+        PrimPool pool = new PrimPool(unterordner.resolve("pool.txt"));
+        pool.registriere("zaehler", 2, () -> new BigInteger[]{BigInteger.ONE});
+        pool.starte();
+        try {
+            warteAufGroesse(pool, "zaehler", 2);
+            assertNull(pool.entnehmen("zaehler"), "Ohne gespeicherten Pool wird nichts herausgegeben.");
+            assertEquals(2, pool.groesse("zaehler"), "Das Tupel bleibt im Pool.");
+        } finally {
+            pool.stoppe();
+        }
+        // ohne Hintergrund-Thread, damit die Datei genau den Stand nach der Entnahme zeigt
+        Files.createDirectories(unterordner);
+        assertNotNull(pool.entnehmen("zaehler"));
+        assertEquals(1, new PrimPool(unterordner.resolve("pool.txt")).groesse("zaehler"));
+    }
+}
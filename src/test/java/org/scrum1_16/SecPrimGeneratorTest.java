@@ -0,0 +1,37 @@
+package org.scrum1_16;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecPrimGeneratorTest {
+
+    private static void pruefeSicherePrimzahl(BigInteger p, int bitLength) {
+        BigInteger q = p.subtract(BigInteger.ONE).shiftRight(1);
+        assertEquals(bitLength, q.bitLength(), "q muss bitLength Bit haben.");
+        assertTrue(q.isProbablePrime(50), "q = (p - 1)/2 muss prim sein: " + q);
+        assertTrue(p.isProbablePrime(50), "p muss prim sein: " + p);
+    }
+
+    @Test
+    void testGenerateSafePrime() {
+        for (int bitLength : new int[]{3, 8, 20, 64, 256}) {
+            pruefeSicherePrimzahl(SecPrimGenerator.generateSafePrime(BigInteger.valueOf(bitLength), 20), bitLength);
+        }
+        // kleine Bitlängen: alle q mit 3 Bit sind 5 und 7, davon ist nur 5 sicher (11; 15 ist zusammengesetzt)
+        for (int i = 0; i < 20; i++) {
+            assertEquals(BigInteger.valueOf(11), SecPrimGenerator.generateSafePrime(BigInteger.valueOf(3), 20));
+        }
+    }
+
+    @Test
+    void testFindPrimitiveRoot() {
+        BigInteger p = SecPrimGenerator.generateSafePrime(BigInteger.valueOf(128), 20);
+        BigInteger q = p.subtract(BigInteger.ONE).shiftRight(1);
+        BigInteger g = SecPrimGenerator.findPrimitiveRoot(p);
+        assertNotEquals(BigInteger.ONE, g.modPow(q, p));
+        assertNotEquals(BigInteger.ONE, g.modPow(BigInteger.TWO, p));
+    }
+}
@@ -0,0 +1,51 @@
+package org.scrum1_2;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MillerRabinKontextTest {
+
+    @Test
+    void testStarkePseudoprimzahl() {
+        // 2047 = 23 · 89 ist starke Pseudoprimzahl zur Basis 2, aber nicht zur Basis 3
+        MillerRabinKontext kontext = new MillerRabinKontext(BigInteger.valueOf(2047));
+        assertTrue(kontext.besteht(BigInteger.TWO));
+        assertFalse(kontext.besteht(BigInteger.valueOf(3)));
+
+        // 3215031751 ist stark pseudoprim zu 2, 3, 5 und 7, aber nicht zu 11
+        MillerRabinKontext gross = new MillerRabinKontext(BigInteger.valueOf(3215031751L));
+        for (int basis : new int[]{2, 3, 5, 7}) {
+            assertTrue(gross.besteht(BigInteger.valueOf(basis)), "Basis " + basis);
+        }
+        assertFalse(gross.besteht(BigInteger.valueOf(11)));
+
+        assertThrows(IllegalArgumentException.class, () -> new MillerRabinKontext(BigInteger.valueOf(9).subtract(BigInteger.ONE)));
+        assertThrows(IllegalArgumentException.class, () -> new MillerRabinKontext(BigInteger.valueOf(3)));
+    }
+
+    @Test
+    void testParallelGleichSequentiell() {
+        SecureRandom random = new SecureRandom();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < 30; i++) {
+                BigInteger zahl = i % 3 == 0
+                        ? BigInteger.probablePrime(256, random)
+                        : new BigInteger(256, random).setBit(255).setBit(0);
+                MillerRabinKontext kontext = new MillerRabinKontext(zahl);
+                boolean erwartet = zahl.isProbablePrime(50);
+                assertEquals(erwartet, kontext.teste(20, random), zahl.toString());
+                assertEquals(erwartet, kontext.teste(20, random, executor), zahl.toString());
+                assertEquals(erwartet, PrimTester.istPrimzahl(zahl, 20, executor), zahl.toString());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
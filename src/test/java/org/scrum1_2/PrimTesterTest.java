@@ -44,4 +44,138 @@ class PrimTesterTest {
         BigInteger composite = new BigInteger("9999999998"); // Eine große gerade Zahl, keine Primzahl
         assertFalse(PrimTester.istPrimzahl(composite, 20), composite + " sollte als zusammengesetzte Zahl erkannt werden.");
     }
+
+    @Test
+    void testBailliePSWGegenIsProbablePrime() {
+        for (int n = -3; n < 100_000; n++) {
+            BigInteger zahl = BigInteger.valueOf(n);
+            assertEquals(zahl.signum() > 0 && zahl.isProbablePrime(50), PrimTester.istPrimzahlBailliePSW(zahl), "n = " + n);
+        }
+    }
+
+    @Test
+    void testBailliePSWPseudoprimzahlen() {
+        // starke Pseudoprimzahlen zur Basis 2, starke Lucas-Pseudoprimzahlen, Carmichael-Zahlen, Quadrat
+        for (long n : new long[]{2047, 3277, 4033, 4681, 8321, 5459, 5777, 10877, 16109, 18971, 561, 1105,
+                3215031751L, 3825123056546413051L, 1_000_000_007L * 1_000_000_007L}) {
+            assertFalse(PrimTester.istPrimzahlBailliePSW(BigInteger.valueOf(n)), n + " ist zusammengesetzt.");
+        }
+        BigInteger mersenne = BigInteger.TWO.pow(127).subtract(BigInteger.ONE);
+        assertTrue(PrimTester.istPrimzahl(mersenne, 1, PrimTester.Verfahren.BAILLIE_PSW));
+        assertTrue(PrimTester.istPrimzahl(mersenne, 20, PrimTester.Verfahren.MILLER_RABIN));
+        assertFalse(PrimTester.istPrimzahl(mersenne.multiply(BigInteger.TWO.pow(89).subtract(BigInteger.ONE)), 1,
+                PrimTester.Verfahren.BAILLIE_PSW));
+
+        java.security.SecureRandom random = new java.security.SecureRandom();
+        for (int i = 0; i < 20; i++) {
+            BigInteger zahl = new BigInteger(512, random).setBit(0);
+            assertEquals(zahl.isProbablePrime(50), PrimTester.istPrimzahlBailliePSW(zahl), zahl.toString());
+            BigInteger prim = BigInteger.probablePrime(256, random);
+            assertTrue(PrimTester.istPrimzahlBailliePSW(prim), prim.toString());
+        }
+    }
+
+    @Test
+    void testVorfilter() {
+        for (int schranke : new int[]{3, 100, PrimTester.STANDARD_SIEBSCHRANKE}) {
+            for (int n = 0; n < 20_000; n++) {
+                boolean erwartet = false;
+                for (int p = 2; p <= Math.min(schranke, n - 1); p++) {
+                    if (n % p == 0) {
+                        erwartet = true;
+                        break;
+                    }
+                }
+                assertEquals(erwartet, PrimTester.hatKleinenTeiler(BigInteger.valueOf(n), schranke),
+                        "n = " + n + ", Schranke " + schranke);
+            }
+        }
+
+        java.security.SecureRandom random = new java.security.SecureRandom();
+        BigInteger prim = BigInteger.probablePrime(512, random);
+        assertFalse(PrimTester.hatKleinenTeiler(prim));
+        assertTrue(PrimTester.hatKleinenTeiler(prim.multiply(BigInteger.valueOf(1999))));
+        assertFalse(PrimTester.hatKleinenTeiler(prim.multiply(BigInteger.valueOf(2003))), "2003 liegt über der Schranke.");
+
+        // der Großteil der ungeraden Zufallszahlen wird ohne Exponentiation verworfen
+        int verworfen = 0;
+        for (int i = 0; i < 2000; i++) {
+            if (PrimTester.hatKleinenTeiler(new BigInteger(512, random).setBit(0))) {
+                verworfen++;
+            }
+        }
+        assertTrue(verworfen > 1600, "verworfen: " + verworfen);
+    }
+
+    @Test
+    void testDeterministisch64Bit() {
+        for (long n = 0; n < 100_000; n++) {
+            assertEquals(BigInteger.valueOf(n).isProbablePrime(50), PrimTester.istPrimzahl64(n), "n = " + n);
+        }
+        // stark pseudoprim zu den Basen 2 bis 23 bzw. 2 bis 7
+        assertFalse(PrimTester.istPrimzahl64(3825123056546413051L));
+        assertFalse(PrimTester.istPrimzahl64(3215031751L));
+        // größte Primzahl unter 2^64 (vorzeichenlos gelesen) und ihre Nachbarn
+        long groesste = Long.parseUnsignedLong("18446744073709551557");
+        assertTrue(PrimTester.istPrimzahl64(groesste));
+        assertFalse(PrimTester.istPrimzahl64(groesste + 2));
+        assertFalse(PrimTester.istPrimzahl64(-1L));
+
+        java.security.SecureRandom random = new java.security.SecureRandom();
+        for (int i = 0; i < 20_000; i++) {
+            long n = random.nextLong() | 1;
+            BigInteger zahl = new BigInteger(Long.toUnsignedString(n));
+            assertEquals(zahl.isProbablePrime(50), PrimTester.istPrimzahl64(n), zahl.toString());
+        }
+        for (int i = 0; i < 200; i++) {
+            BigInteger prim = BigInteger.probablePrime(33 + random.nextInt(32), random);
+            assertTrue(PrimTester.istPrimzahl64(prim.longValue()), prim.toString());
+            assertTrue(PrimTester.istPrimzahl(prim, 1), prim.toString());
+            BigInteger produkt = BigInteger.probablePrime(32, random).multiply(BigInteger.probablePrime(31, random));
+            assertFalse(PrimTester.istPrimzahl64(produkt.longValue()), produkt.toString());
+        }
+    }
+
+    /** Selfridge-Parameter: erstes D aus 5, -7, 9, -11, ... mit Jacobi(D/n) = -1. */
+    private static long selfridgeD(BigInteger n) {
+        long d = 5;
+        while (PrimTester.jacobiSymbol(BigInteger.valueOf(d), n) != -1) {
+            assertNotEquals(0, PrimTester.jacobiSymbol(BigInteger.valueOf(d), n), "ggT(D, n) > 1 für n = " + n);
+            d = d > 0 ? -(d + 2) : -d + 2;
+        }
+        return d;
+    }
+
+    @Test
+    void testStarkerLucasTest() {
+        // starke Lucas-Pseudoprimzahlen bestehen, starke Pseudoprimzahlen zur Basis 2 nicht
+        for (long n : new long[]{5459, 5777, 10877, 16109, 18971}) {
+            BigInteger zahl = BigInteger.valueOf(n);
+            assertTrue(PrimTester.starkerLucasTest(zahl, selfridgeD(zahl)), n + " ist stark Lucas-pseudoprim.");
+            assertFalse(new MillerRabinKontext(zahl).besteht(BigInteger.TWO), n + " ist nicht stark pseudoprim zur Basis 2.");
+        }
+        for (long n : new long[]{2047, 3277, 4033, 4681, 8321}) {
+            BigInteger zahl = BigInteger.valueOf(n);
+            assertTrue(new MillerRabinKontext(zahl).besteht(BigInteger.TWO), n + " ist stark pseudoprim zur Basis 2.");
+            assertFalse(PrimTester.starkerLucasTest(zahl, selfridgeD(zahl)), n + " ist zusammengesetzt.");
+        }
+        for (int exponent : new int[]{61, 89, 107, 127, 521}) {
+            BigInteger prim = BigInteger.TWO.pow(exponent).subtract(BigInteger.ONE);
+            assertTrue(PrimTester.starkerLucasTest(prim, selfridgeD(prim)), "2^" + exponent + " - 1 ist prim.");
+        }
+    }
+
+    @Test
+    void testBailliePSWVerwirftPseudoprimzahlenUeber64Bit() {
+        // Zusammengesetzte 2^p - 1 (p prim) sind stark pseudoprim zur Basis 2; ihre Primfaktoren liegen
+        // über STANDARD_SIEBSCHRANKE, verworfen werden sie also erst vom Lucas-Test.
+        for (int exponent : new int[]{67, 71, 79, 101, 103}) {
+            BigInteger zahl = BigInteger.TWO.pow(exponent).subtract(BigInteger.ONE);
+            assertTrue(zahl.bitLength() > 64);
+            assertFalse(PrimTester.hatKleinenTeiler(zahl, PrimTester.STANDARD_SIEBSCHRANKE));
+            assertTrue(new MillerRabinKontext(zahl).besteht(BigInteger.TWO), "2^" + exponent + " - 1");
+            assertFalse(PrimTester.starkerLucasTest(zahl, selfridgeD(zahl)), "2^" + exponent + " - 1");
+            assertFalse(PrimTester.istPrimzahlBailliePSW(zahl), "2^" + exponent + " - 1 ist zusammengesetzt.");
+        }
+    }
 }
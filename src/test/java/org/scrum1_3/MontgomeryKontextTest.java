@@ -0,0 +1,112 @@
+package org.scrum1_3;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MontgomeryKontextTest {
+
+    @Test
+    void testKleineWerte() {
+        MontgomeryKontext kontext = new MontgomeryKontext(BigInteger.valueOf(7));
+        assertEquals(BigInteger.valueOf(1),
+                kontext.schnelleExponentiation(BigInteger.valueOf(-3), BigInteger.valueOf(3)),
+                "-3^3 mod 7 sollte 1 sein.");
+        assertEquals(BigInteger.ONE,
+                kontext.schnelleExponentiation(BigInteger.valueOf(3), BigInteger.ZERO),
+                "Jede Zahl hoch 0 sollte 1 sein.");
+        assertEquals(BigInteger.valueOf(6),
+                kontext.multipliziere(BigInteger.valueOf(4), BigInteger.valueOf(5)),
+                "4 * 5 mod 7 sollte 6 sein.");
+    }
+
+    @Test
+    void testVergleichMitSchnellerExponentiation() {
+        BigInteger basis = new BigInteger("123456789");
+        BigInteger exponent = new BigInteger("987654321");
+        BigInteger modulus = new BigInteger("1000000007");
+
+        assertEquals(new BigInteger("652541198"),
+                new MontgomeryKontext(modulus).schnelleExponentiation(basis, exponent),
+                "Das vorher berechnete Ergebnis sollte mit der Methode übereinstimmen.");
+        assertEquals(schnelleExponentiation.schnelleExponentiation(basis, exponent, modulus),
+                schnelleExponentiation.montgomeryExponentiation(basis, exponent, modulus));
+    }
+
+    @Test
+    void testZufaelligeGroßeModuli() {
+        SecureRandom random = new SecureRandom();
+        // auch Bitlängen, die kein Vielfaches von 32 sind (z.B. 2047, 3404)
+        for (int bitLength : new int[]{33, 64, 512, 1024, 2047, 3404}) {
+            BigInteger modulus = new BigInteger(bitLength, random).setBit(bitLength - 1).setBit(0);
+            MontgomeryKontext kontext = new MontgomeryKontext(modulus);
+            for (int i = 0; i < 3; i++) {
+                BigInteger basis = new BigInteger(bitLength + 10, random);
+                BigInteger exponent = new BigInteger(bitLength, random);
+                assertEquals(basis.modPow(exponent, modulus), kontext.schnelleExponentiation(basis, exponent),
+                        "Abweichung bei " + bitLength + " Bit");
+            }
+        }
+    }
+
+    @Test
+    void testLimbArithmetik() {
+        SecureRandom random = new SecureRandom();
+        // 64 und 128 Bit: Modulus füllt die Limbs ganz aus, Überträge beim Addieren
+        for (int bitLength : new int[]{17, 64, 128, 255}) {
+            BigInteger modulus = new BigInteger(bitLength, random).setBit(bitLength - 1).setBit(0);
+            MontgomeryKontext kontext = new MontgomeryKontext(modulus);
+            long[] t = kontext.neuerPuffer();
+            for (int i = 0; i < 20; i++) {
+                BigInteger a = new BigInteger(bitLength, random).mod(modulus);
+                BigInteger b = i == 0 ? modulus.subtract(BigInteger.ONE) : new BigInteger(bitLength, random).mod(modulus);
+                long[] am = kontext.inMontgomeryForm(a, t);
+                long[] bm = kontext.inMontgomeryForm(b, t);
+                long[] erg = new long[kontext.getLaenge()];
+
+                kontext.modAddition(am, bm, erg);
+                assertEquals(a.add(b).mod(modulus), kontext.ausMontgomeryForm(erg, t), "Addition");
+                kontext.modSubtraktion(am, bm, erg);
+                assertEquals(a.subtract(b).mod(modulus), kontext.ausMontgomeryForm(erg, t), "Subtraktion");
+                kontext.montgomeryMultiplikation(am, bm, erg, t);
+                assertEquals(a.multiply(b).mod(modulus), kontext.ausMontgomeryForm(erg, t), "Multiplikation");
+
+                // ergebnis darf ein Operand sein
+                kontext.modSubtraktion(am, am, am);
+                assertTrue(kontext.istNull(am));
+            }
+            assertTrue(kontext.istEins(kontext.einsInMontgomeryForm()));
+            assertFalse(kontext.istEins(kontext.inMontgomeryForm(BigInteger.TWO, t)));
+        }
+    }
+
+    @Test
+    void testGeraderModulus() {
+        assertThrows(IllegalArgumentException.class, () -> new MontgomeryKontext(BigInteger.valueOf(10)));
+        // die statische Variante fällt auf das klassische Verfahren zurück
+        assertEquals(BigInteger.valueOf(4),
+                schnelleExponentiation.montgomeryExponentiation(BigInteger.valueOf(2), BigInteger.valueOf(2), BigInteger.valueOf(10)));
+    }
+
+    @Test
+    void testStandardFensterBreite() {
+        // kleine oder dünn besetzte Exponenten: binär, ohne Tabelle
+        assertEquals(1, MontgomeryKontext.standardFensterBreite(BigInteger.valueOf(65537)));
+        assertEquals(1, MontgomeryKontext.standardFensterBreite(BigInteger.valueOf(3)));
+        assertEquals(1, MontgomeryKontext.standardFensterBreite(BigInteger.TWO.pow(1000).add(BigInteger.ONE)));
+        // dicht besetzte Exponenten: wie nach der Bitlänge
+        SecureRandom random = new SecureRandom();
+        for (int bits : new int[]{128, 512, 1024, 2048}) {
+            BigInteger exponent = new BigInteger(bits, random).setBit(bits - 1);
+            assertEquals(MontgomeryKontext.standardFensterBreite(bits), MontgomeryKontext.standardFensterBreite(exponent));
+        }
+
+        BigInteger modulus = new BigInteger(2048, random).setBit(2047).setBit(0);
+        BigInteger basis = new BigInteger(2000, random);
+        BigInteger e = BigInteger.valueOf(65537);
+        assertEquals(basis.modPow(e, modulus), new MontgomeryKontext(modulus).schiebefensterExponentiation(basis, e));
+    }
+}
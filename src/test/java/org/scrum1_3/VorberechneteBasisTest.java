@@ -0,0 +1,48 @@
+package org.scrum1_3;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VorberechneteBasisTest {
+
+    @Test
+    void testAlleFensterBreiten() {
+        SecureRandom random = new SecureRandom();
+        BigInteger modulus = new BigInteger(1024, random).setBit(1023).setBit(0);
+        MontgomeryKontext kontext = new MontgomeryKontext(modulus);
+        BigInteger basis = new BigInteger(1000, random);
+        BigInteger exponent = new BigInteger(1024, random);
+
+        for (int w = 1; w <= 8; w++) {
+            assertEquals(basis.modPow(exponent, modulus),
+                    kontext.schiebefensterExponentiation(basis, exponent, w),
+                    "Abweichung bei Fensterbreite " + w);
+        }
+    }
+
+    @Test
+    void testTabelleWiederverwenden() {
+        SecureRandom random = new SecureRandom();
+        BigInteger p = new BigInteger("1000000007");
+        BigInteger g = BigInteger.valueOf(5);
+        VorberechneteBasis tabelle = new VorberechneteBasis(new MontgomeryKontext(p), g, 5);
+
+        for (int i = 0; i < 50; i++) {
+            BigInteger k = new BigInteger(40, random);
+            assertEquals(g.modPow(k, p), tabelle.potenz(k), "g^k mod p stimmt nicht für k = " + k);
+        }
+        assertEquals(BigInteger.ONE, tabelle.potenz(BigInteger.ZERO), "g^0 sollte 1 sein.");
+        assertEquals(g, tabelle.potenz(BigInteger.ONE), "g^1 sollte g sein.");
+    }
+
+    @Test
+    void testUngueltigeFensterBreite() {
+        MontgomeryKontext kontext = new MontgomeryKontext(BigInteger.valueOf(17));
+        assertThrows(IllegalArgumentException.class, () -> new VorberechneteBasis(kontext, BigInteger.TWO, 0));
+        assertThrows(IllegalArgumentException.class, () -> new VorberechneteBasis(kontext, BigInteger.TWO, 9));
+    }
+}
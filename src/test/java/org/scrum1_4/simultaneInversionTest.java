@@ -0,0 +1,59 @@
+package org.scrum1_4;
+
+import org.junit.jupiter.api.Test;
+import org.scrum1_3.MontgomeryKontext;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimultaneInversionTest {
+
+    private static final SecureRandom random = new SecureRandom();
+
+    @Test
+    void testVergleichMitModInverse() {
+        BigInteger p = BigInteger.probablePrime(256, random);
+        for (int anzahl : new int[]{0, 1, 2, 17}) {
+            BigInteger[] werte = new BigInteger[anzahl];
+            for (int i = 0; i < anzahl; i++) {
+                werte[i] = new BigInteger(300, random).mod(p.subtract(BigInteger.ONE)).add(BigInteger.ONE);
+            }
+            BigInteger[] inverse = simultaneInversion.invertiere(werte, p);
+            assertEquals(anzahl, inverse.length);
+            for (int i = 0; i < anzahl; i++) {
+                assertEquals(werte[i].modInverse(p), inverse[i], "Element " + i);
+            }
+        }
+    }
+
+    @Test
+    void testMontgomeryForm() {
+        BigInteger p = BigInteger.probablePrime(192, random);
+        MontgomeryKontext kontext = new MontgomeryKontext(p);
+        long[] t = kontext.neuerPuffer();
+        BigInteger[] werte = new BigInteger[9];
+        long[][] limbs = new long[werte.length][];
+        for (int i = 0; i < werte.length; i++) {
+            werte[i] = new BigInteger(192, random).mod(p.subtract(BigInteger.ONE)).add(BigInteger.ONE);
+            limbs[i] = kontext.inMontgomeryForm(werte[i], t);
+        }
+        simultaneInversion.invertiere(limbs, kontext);
+        for (int i = 0; i < werte.length; i++) {
+            assertEquals(werte[i].modInverse(p), kontext.ausMontgomeryForm(limbs[i], t), "Element " + i);
+        }
+    }
+
+    @Test
+    void testNichtInvertierbar() {
+        BigInteger n = BigInteger.valueOf(15);
+        assertThrows(ArithmeticException.class,
+                () -> simultaneInversion.invertiere(new BigInteger[]{BigInteger.TWO, BigInteger.valueOf(3)}, n));
+
+        MontgomeryKontext kontext = new MontgomeryKontext(BigInteger.valueOf(17));
+        long[][] limbs = {kontext.einsInMontgomeryForm(), new long[kontext.getLaenge()]};
+        assertThrows(ArithmeticException.class, () -> simultaneInversion.invertiere(limbs, kontext));
+        assertTrue(kontext.istEins(limbs[0]), "Eingabe bleibt bei einer 0 unverändert");
+    }
+}
@@ -0,0 +1,48 @@
+package org.scrum1_6;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlockStromUtilsTest {
+
+    @Test
+    void testSchreibeFesteLaenge() {
+        byte[] ziel = {9, 9, 9, 9, 9, 9};
+        BlockStromUtils.schreibeFesteLaenge(BigInteger.valueOf(0x0102), ziel, 1, 4);
+        assertArrayEquals(new byte[]{9, 0, 0, 1, 2, 9}, ziel);
+
+        // Vorzeichenbyte von toByteArray() wird abgeschnitten
+        BlockStromUtils.schreibeFesteLaenge(BigInteger.valueOf(0xFF), ziel, 5, 1);
+        assertEquals((byte) 0xFF, ziel[5]);
+    }
+
+    @Test
+    void testOhnePaddingEntferntNurNullenAmEnde() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BlockStromUtils.OhnePadding klartext = new BlockStromUtils.OhnePadding(out, 3);
+        klartext.schreibe(new byte[]{1, 0, 0}, 3);
+        klartext.schreibe(new byte[]{0, 0, 0}, 3);
+        klartext.schreibe(new byte[]{0, 2, 0}, 3);
+        klartext.schreibe(new byte[]{0, 0, 0}, 3);
+        assertArrayEquals(new byte[]{1, 0, 0, 0, 0, 0, 0, 2}, out.toByteArray());
+    }
+
+    @Test
+    void testNichtSchliessend() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                fail("darf nicht geschlossen werden");
+            }
+        };
+        try (var hülle = BlockStromUtils.nichtSchliessend(out)) {
+            hülle.write(new byte[]{4, 5}, 0, 2);
+        }
+        assertArrayEquals(new byte[]{4, 5}, out.toByteArray());
+    }
+}
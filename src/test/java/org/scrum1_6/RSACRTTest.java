@@ -0,0 +1,67 @@
+package org.scrum1_6;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.scrum1_6.RsaTestSchluessel.E;
+
+class RSACRTTest {
+
+    private static final SecureRandom random = new SecureRandom();
+
+    @Test
+    void testPotenzStimmtMitDUeberein() {
+        RsaTestSchluessel schluessel = RsaTestSchluessel.erzeuge(512);
+        BigInteger n = schluessel.n;
+        BigInteger d = schluessel.d;
+        RSACRT crt = new RSACRT(schluessel.p, schluessel.q, d);
+
+        assertEquals(n, crt.getModulus());
+        for (int i = 0; i < 10; i++) {
+            BigInteger c = new BigInteger(n.bitLength() - 1, random);
+            assertEquals(c.modPow(d, n), crt.potenz(c), "CRT-Ergebnis muss c^d mod n entsprechen.");
+        }
+    }
+
+    @Test
+    void testSpeichernUndLaden(@TempDir Path tempDir) throws IOException {
+        RsaTestSchluessel schluessel = RsaTestSchluessel.erzeuge(512);
+        RSACRT crt = new RSACRT(schluessel.p, schluessel.q, schluessel.d);
+
+        String datei = tempDir.resolve("test_d_crt.txt").toString();
+        crt.speichern(datei);
+        RSACRT geladen = RSACRT.laden(datei);
+
+        assertEquals(crt.p, geladen.p);
+        assertEquals(crt.q, geladen.q);
+        assertEquals(crt.dP, geladen.dP);
+        assertEquals(crt.dQ, geladen.dQ);
+        assertEquals(crt.qInv, geladen.qInv);
+    }
+
+    @Test
+    void testAusSchluesselRekonstruiertFaktoren() {
+        RsaTestSchluessel schluessel = RsaTestSchluessel.erzeuge(512);
+        BigInteger n = schluessel.n;
+        BigInteger d = schluessel.d;
+
+        RSACRT crt = RSACRT.ausSchluessel(n, E, d);
+        assertNotNull(crt, "Die Faktoren sollten rekonstruiert werden.");
+        assertEquals(n, crt.p.multiply(crt.q));
+        BigInteger m = new BigInteger(1000, random);
+        assertEquals(m.modPow(d, n), crt.potenz(m));
+    }
+
+    @Test
+    void testCrtDateiname() {
+        assertEquals("rsa_d_crt.txt", RSACRT.crtDateiname("rsa_d.txt"));
+        assertEquals("bob_d_crt.txt", RSACRT.crtDateiname("bob_d.txt"));
+        assertEquals("schluessel_crt", RSACRT.crtDateiname("schluessel"));
+    }
+}
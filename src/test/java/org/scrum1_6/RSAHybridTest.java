@@ -0,0 +1,71 @@
+package org.scrum1_6;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.scrum1_6.RsaTestSchluessel.E;
+
+class RSAHybridTest {
+
+    @Test
+    void testRundreise() {
+        RsaTestSchluessel schluessel = RsaTestSchluessel.erzeuge(512);
+        BigInteger n = schluessel.n;
+        BigInteger d = schluessel.d;
+
+        byte[] text = ("Hybrid: eine RSA-Operation, der Rest über AES-GCM. äöü " + "x".repeat(4000))
+                .getBytes(StandardCharsets.UTF_8);
+        byte[] chiffrat = RSAUTF8.encryptHybrid(text, E, n);
+        assertTrue(RSAUTF8.isHybrid(HybridUtils.mitKennung(RSAUTF8.HYBRID_KENNUNG, chiffrat)));
+        assertArrayEquals(text, RSAUTF8.decryptHybrid(chiffrat, d, n));
+
+        // Ausdehnung nur um den festen Kopf (Magic, Version, c, IV) und das Tag
+        int kopf = 3 + 1 + (n.bitLength() + 7) / 8 + 12 + 16;
+        assertEquals(text.length + kopf, chiffrat.length);
+        assertArrayEquals(new byte[0], RSAUTF8.decryptHybrid(RSAUTF8.encryptHybrid(new byte[0], E, n), d, n));
+    }
+
+    @Test
+    void testManipulationUndFremdesFormat() {
+        RsaTestSchluessel schluessel = RsaTestSchluessel.erzeuge(512);
+        BigInteger n = schluessel.n;
+        BigInteger d = schluessel.d;
+        byte[] chiffrat = RSAUTF8.encryptHybrid("geheim".getBytes(StandardCharsets.UTF_8), E, n);
+
+        byte[] verändert = chiffrat.clone();
+        verändert[verändert.length - 5] ^= 1;
+        assertThrows(IllegalArgumentException.class, () -> RSAUTF8.decryptHybrid(verändert, d, n), "Tag");
+
+        byte[] andererSchluesselblock = chiffrat.clone();
+        andererSchluesselblock[10] ^= 1;
+        assertThrows(IllegalArgumentException.class, () -> RSAUTF8.decryptHybrid(andererSchluesselblock, d, n), "c");
+
+        byte[] falscheVersion = chiffrat.clone();
+        falscheVersion[3] = 2;
+        assertThrows(IllegalArgumentException.class, () -> RSAUTF8.decryptHybrid(falscheVersion, d, n), "Version");
+
+        // Blockformat (blocksToBase64String) wird nicht als Hybrid erkannt
+        assertFalse(RSAUTF8.isHybrid(Base64.getEncoder().encodeToString(chiffrat)));
+        assertFalse(RSAUTF8.isHybrid("kein Base64!"));
+    }
+
+    @Test
+    void testKennungTrenntHybridVonBlockformat() {
+        // ein Blockchiffrat, dessen Bytes wie der binäre Hybridkopf beginnen, bleibt Blockformat
+        byte[] wieKopf = {'R', 'S', 'H', RSAUTF8.HYBRID_VERSION, 7, 7, 7, 7};
+        assertFalse(RSAUTF8.isHybrid(Base64.getEncoder().encodeToString(wieKopf)));
+
+        String text = HybridUtils.mitKennung(RSAUTF8.HYBRID_KENNUNG, wieKopf);
+        assertTrue(text.startsWith("RSH1:"));
+        assertTrue(RSAUTF8.isHybrid("  " + text + "\n"));
+        assertArrayEquals(wieKopf, HybridUtils.ohneKennung(text, RSAUTF8.HYBRID_KENNUNG));
+        assertFalse(RSAUTF8.isHybrid("RSH1"));
+        assertFalse(RSAUTF8.isHybrid("ECH1:" + Base64.getEncoder().encodeToString(wieKopf)));
+        assertThrows(IllegalArgumentException.class,
+                () -> HybridUtils.ohneKennung(Base64.getEncoder().encodeToString(wieKopf), RSAUTF8.HYBRID_KENNUNG));
+    }
+}
@@ -0,0 +1,79 @@
+package org.scrum1_6;
+
+import org.junit.jupiter.api.Test;
+import org.scrum1_3.MontgomeryKontext;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.scrum1_6.RsaTestSchluessel.E;
+
+class RSAUTF8ParallelTest {
+
+    @Test
+    void testParallelGleichSequentiell() throws InterruptedException {
+        RsaTestSchluessel schluessel = RsaTestSchluessel.erzeuge(512);
+        BigInteger n = schluessel.n;
+        BigInteger d = schluessel.d;
+        MontgomeryKontext kontext = new MontgomeryKontext(n);
+        UnaryOperator<BigInteger> verschluesseln = m -> kontext.schiebefensterExponentiation(m, E);
+        UnaryOperator<BigInteger> entschluesseln = c -> kontext.schiebefensterExponentiation(c, d);
+
+        // unterschiedliche Blöcke, damit eine vertauschte Reihenfolge auffällt
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            text.append("Block ").append(i).append(": äöü ß € ");
+        }
+        List<BigInteger> klar = RSAUTF8.textToBigIntegerBlocks(text.toString(), n);
+        assertTrue(klar.size() > 20);
+
+        RSAUTF8 rsa = new RSAUTF8(1024);
+        List<BigInteger> chiffratSequentiell = rsa.verarbeiteBloecke(klar, verschluesseln);
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            rsa.setExecutor(pool);
+            rsa.setParallelSchwelle(8);
+            Set<Thread> threads = ConcurrentHashMap.newKeySet();
+            List<BigInteger> chiffratParallel = rsa.verarbeiteBloecke(klar, m -> {
+                threads.add(Thread.currentThread());
+                return verschluesseln.apply(m);
+            });
+            assertFalse(threads.contains(Thread.currentThread()), "oberhalb der Schwelle rechnet der Pool");
+            assertEquals(chiffratSequentiell, chiffratParallel);
+            for (int i = 0; i < klar.size(); i++) {
+                assertEquals(verschluesseln.apply(klar.get(i)), chiffratParallel.get(i), "Block " + i);
+            }
+
+            List<BigInteger> entschluesselt = rsa.verarbeiteBloecke(chiffratParallel, entschluesseln);
+            assertEquals(klar, entschluesselt);
+            byte[] bytes = RSAUTF8.bigIntegerBlocksToBytes(entschluesselt, RSAUTF8.getEncryptionBlockSize(n));
+            assertEquals(text.toString().trim(), new String(bytes, StandardCharsets.UTF_8).trim());
+
+            // unterhalb der Schwelle bleibt alles im aufrufenden Thread
+            rsa.setParallelSchwelle(klar.size() + 1);
+            threads.clear();
+            assertEquals(chiffratSequentiell, rsa.verarbeiteBloecke(klar, m -> {
+                threads.add(Thread.currentThread());
+                return verschluesseln.apply(m);
+            }));
+            assertEquals(Set.of(Thread.currentThread()), threads);
+        } finally {
+            pool.shutdown();
+        }
+
+        rsa.setParallel(true);
+        rsa.setParallelSchwelle(1);
+        assertEquals(klar, rsa.verarbeiteBloecke(chiffratSequentiell, entschluesseln));
+        rsa.setParallel(false);
+        assertEquals(chiffratSequentiell, rsa.verarbeiteBloecke(klar, verschluesseln));
+        assertThrows(IllegalArgumentException.class, () -> rsa.setParallelSchwelle(0));
+    }
+}
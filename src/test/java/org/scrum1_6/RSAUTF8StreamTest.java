@@ -0,0 +1,74 @@
+package org.scrum1_6;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.scrum1_6.RsaTestSchluessel.E;
+
+class RSAUTF8StreamTest {
+
+    private static final SecureRandom random = new SecureRandom();
+
+    private static byte[] verschluesseln(byte[] daten, BigInteger n, boolean base64) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RSAUTF8.encryptStream(new ByteArrayInputStream(daten), out, E, n, base64);
+        return out.toByteArray();
+    }
+
+    private static byte[] entschluesseln(byte[] chiffrat, BigInteger n, BigInteger d, boolean base64) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RSAUTF8.decryptStream(new ByteArrayInputStream(chiffrat), out, d, n, base64);
+        return out.toByteArray();
+    }
+
+    @Test
+    void testRundreiseBinaerUndBase64() throws IOException {
+        RsaTestSchluessel schluessel = RsaTestSchluessel.erzeuge(384);
+        BigInteger n = schluessel.n;
+        BigInteger d = schluessel.d;
+        int blockSize = RSAUTF8.getEncryptionBlockSize(n);
+
+        // Längen um die Blockgrenzen herum, Nullbytes mitten in den Daten bleiben erhalten
+        for (int laenge : new int[]{1, blockSize - 1, blockSize, blockSize + 1, 5 * blockSize + 3}) {
+            byte[] daten = new byte[laenge];
+            random.nextBytes(daten);
+            daten[laenge - 1] = 42;
+            if (laenge > 2) {
+                daten[laenge / 2] = 0;
+            }
+            for (boolean base64 : new boolean[]{false, true}) {
+                byte[] chiffrat = verschluesseln(daten, n, base64);
+                assertArrayEquals(daten, entschluesseln(chiffrat, n, d, base64),
+                        "Rundreise fehlgeschlagen bei " + laenge + " Bytes, base64 = " + base64);
+            }
+        }
+    }
+
+    @Test
+    void testBase64KompatibelMitStringVariante() throws IOException {
+        BigInteger n = RsaTestSchluessel.erzeuge(384).n;
+        String text = "Grüße aus dem Datenstrom – ".repeat(20);
+
+        String erwartet = RSAUTF8.blocksToBase64String(
+                RSAUTF8.textToBigIntegerBlocks(text, n).stream().map(m -> m.modPow(E, n)).toList(), n);
+        String gestreamt = new String(verschluesseln(text.getBytes(StandardCharsets.UTF_8), n, true),
+                StandardCharsets.US_ASCII);
+        assertEquals(erwartet, gestreamt);
+    }
+
+    @Test
+    void testUnvollstaendigerBlock() throws IOException {
+        RsaTestSchluessel schluessel = RsaTestSchluessel.erzeuge(384);
+        byte[] chiffrat = verschluesseln("Hallo".getBytes(StandardCharsets.UTF_8), schluessel.n, false);
+        byte[] abgeschnitten = Arrays.copyOf(chiffrat, chiffrat.length - 1);
+        assertThrows(IOException.class, () -> entschluesseln(abgeschnitten, schluessel.n, schluessel.d, false));
+    }
+}
@@ -0,0 +1,39 @@
+package org.scrum1_6;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+/**
+ * Zufälliges RSA-Schlüsselpaar mit e = 65537 für die Tests.
+ */
+final class RsaTestSchluessel {
+
+    static final BigInteger E = BigInteger.valueOf(65537);
+
+    private static final SecureRandom random = new SecureRandom();
+
+    final BigInteger p;
+    final BigInteger q;
+    final BigInteger n;
+    final BigInteger d;
+
+    private RsaTestSchluessel(BigInteger p, BigInteger q, BigInteger phi) {
+        this.p = p;
+        this.q = q;
+        this.n = p.multiply(q);
+        this.d = E.modInverse(phi);
+    }
+
+    /**
+     * @param bits Länge von p und q in Bit
+     */
+    static RsaTestSchluessel erzeuge(int bits) {
+        BigInteger p, q, phi;
+        do {
+            p = BigInteger.probablePrime(bits, random);
+            q = BigInteger.probablePrime(bits, random);
+            phi = p.subtract(BigInteger.ONE).multiply(q.subtract(BigInteger.ONE));
+        } while (p.equals(q) || !phi.gcd(E).equals(BigInteger.ONE));
+        return new RsaTestSchluessel(p, q, phi);
+    }
+}